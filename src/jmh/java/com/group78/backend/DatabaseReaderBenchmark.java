@@ -0,0 +1,123 @@
+package com.group78.backend;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times DatabaseReader.fetchToken(), saveGame(), fetchAll() and fetchTop() over generated users
+ * files of 1k, 100k and 1M users, in the same format as src/main/users.json. The looked-up and saved user is
+ * the last one in the file. Users are served from the file's UserRepository, so the file is only parsed once
+ * per trial and saves are appended to its journal behind; the setup time grows with the file but the measured
+ * calls should not, except fetchAll(). With format "binary" the file is converted for a
+ * MappedUserStore first, which is opened without parsing and reads and writes the user in place.
+ * <p>
+ * Run with: mvn -Pjmh verify -Djmh.args=DatabaseReaderBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class DatabaseReaderBenchmark {
+
+    /** Number of users in the generated file. */
+    @Param({"1000", "100000", "1000000"})
+    private int users;
+
+    /** The store the reader uses: "json" for the users json file, "binary" for a converted MappedUserStore file. */
+    @Param({"json", "binary"})
+    private String format;
+
+    /** The generated users json file. */
+    private Path jsonFile;
+
+    /** The file the reader uses. */
+    private Path userFile;
+
+    /** The reader under test. */
+    private DatabaseReader db;
+
+    /** The last user in the file. */
+    private GameToken lastUser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        jsonFile = Files.createTempFile("users", ".json");
+        try (BufferedWriter out = Files.newBufferedWriter(jsonFile, StandardCharsets.UTF_8)) {
+            out.write('[');
+            for (int i = 0; i < users; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write("{\"level\":" + (i % 10 + 1) + ",\"totalPoints\":" + (i * 37 % 5000)
+                        + ",\"snakeSize\":3,\"username\":\"user" + i + "\"}");
+            }
+            out.write(']');
+        }
+        userFile = jsonFile;
+        if (format.equals("binary")) {
+            userFile = Path.of(jsonFile.toString().replace(".json", MappedUserStore.EXTENSION));
+            UserStoreConverter.convert(jsonFile.toString(), userFile.toString());
+        }
+        db = new DatabaseReader(userFile.toString());
+        lastUser = new GameToken("user" + (users - 1), new UserStats(1, 3, 0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        UserStore.forFile(userFile.toString()).close();
+        Files.deleteIfExists(userFile);
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(Path.of(jsonFile + ".journal"));
+        Files.deleteIfExists(Path.of(jsonFile + ".lock"));
+        Files.deleteIfExists(Path.of(userFile + ".lock"));
+    }
+
+    @Benchmark
+    public GameToken fetchToken() {
+        return db.fetchToken(lastUser.getUsername());
+    }
+
+    /**
+     * Saves the last user with a new point total: a journal record behind for json, an in-place write for binary.
+     */
+    @Benchmark
+    public void saveGame() {
+        UserStats stats = lastUser.getStats();
+        stats.setTotalPoints(stats.getTotalPoints() + 1);
+        db.saveGame(lastUser);
+    }
+
+    @Benchmark
+    public List<GameToken> fetchAll() {
+        return db.fetchAll();
+    }
+
+    /**
+     * Reads the top three of the leaderboard index, which every save keeps up to date.
+     */
+    @Benchmark
+    public List<GameToken> fetchTop() {
+        return db.fetchTop(3);
+    }
+}
@@ -0,0 +1,119 @@
+package com.group78.frontend;
+
+import com.group78.gamelogic.Board;
+import com.group78.gamelogic.Direction;
+import com.group78.gamelogic.GameEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times BoardCanvas on a 512x512 board with 100 enemies, painted at 700x700 into an offscreen image:
+ * drawing one tick's changes into the back buffer, painting the canvas, and redrawing every tile.
+ * A frame at 60 fps has 16667 us. The canvas is never shown, so this runs headless.
+ * <p>
+ * Run with: mvn -Pjmh verify -Djmh.args=BoardCanvasBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BoardCanvasBenchmark {
+
+    /** Width and height of the board in tiles. */
+    private static final int SIZE = 512;
+
+    /** Directions walking the user snake round a square, so it survives. */
+    private static final Direction[] SQUARE = {Direction.UP, Direction.RIGHT, Direction.DOWN, Direction.LEFT};
+
+    /** The game being drawn. */
+    private Board board;
+    private GameEngine engine;
+
+    /** The canvas under test. */
+    private BoardCanvas canvas;
+
+    /** The image the canvas paints to, standing in for the screen. */
+    private BufferedImage screen;
+
+    /** The seed of the next board, so every run plays the same games. */
+    private long seed;
+
+    /** The number of ticks played, used to steer the user snake. */
+    private int tick;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        seed = 1;
+        screen = new BufferedImage(700, 700, BufferedImage.TYPE_INT_RGB);
+        newGame();
+    }
+
+    private void newGame() throws Exception {
+        board = new Board(SIZE, SIZE, 2000, 2000, 100, SIZE / 2, seed++);
+        engine = new GameEngine(board);
+        canvas = new BoardCanvas(board);
+        canvas.setSize(700, 700);
+        tick = 0;
+    }
+
+    /**
+     * Runs one tick, circling the middle of the board.
+     */
+    private void advance() throws Exception {
+        if (engine.isOver()) {
+            newGame();
+        }
+        engine.step(SQUARE[(tick++ / 20) % 4]);
+    }
+
+    private void paint() {
+        Graphics g = screen.getGraphics();
+        canvas.paint(g);
+        g.dispose();
+    }
+
+    @Benchmark
+    public long step() throws Exception {
+        advance();
+        board.clearDirty();
+        return tick;
+    }
+
+    @Benchmark
+    public long stepAndDraw() throws Exception {
+        advance();
+        canvas.drawBoard(board);
+        return tick;
+    }
+
+    @Benchmark
+    public long stepDrawAndPaint() throws Exception {
+        advance();
+        canvas.drawBoard(board);
+        paint();
+        return tick;
+    }
+
+    @Benchmark
+    public long fullRedraw() {
+        canvas.redrawAll();
+        canvas.drawBoard(board);
+        paint();
+        return tick;
+    }
+}
@@ -0,0 +1,151 @@
+package com.group78.gamelogic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times one game tick, one enemy move and the food spawning paths of Board across board sizes and enemy counts.
+ * The user snake sweeps the board column by column so games last long, and a new seeded board
+ * is built whenever a game ends.
+ * <p>
+ * Run with: mvn -Pjmh verify -Djmh.args=BoardBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    /** Width and height of the board. Boards over 1024x1024 are stored in chunks. */
+    @Param({"25", "256", "1024", "4096"})
+    private int size;
+
+    /** Number of enemy snakes. Enemies spawn from the side columns inwards, so 8 still clear the user on a 25x25 board. */
+    @Param({"1", "4", "8"})
+    private int enemies;
+
+    /** The board being played. */
+    private Board board;
+
+    /** The seed of the next board, so every run plays the same games. */
+    private long seed;
+
+    /** The user snake's head and heading, tracked here to steer it. */
+    private int headX, headY;
+    private Direction dir;
+
+    /** A food cell, cleared and refilled by updateFood(). */
+    private int foodX, foodY;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        seed = 1;
+        newBoard();
+    }
+
+    /**
+     * Builds a board with one food per column, the user snake in the middle and no obstacles.
+     */
+    private void newBoard() throws Exception {
+        board = new Board(size, size, size, 0, enemies, size / 2, seed++);
+        board.setChangeTracking(true);
+        headX = size / 2;
+        headY = 4;
+        dir = Direction.UP;
+        long[] food = board.getBitboard(TileType.FOOD);
+        for (int word = 0; word < food.length; word++) {
+            if (food[word] != 0) {
+                int cell = word * 64 + Long.numberOfTrailingZeros(food[word]);
+                foodX = cell % size;
+                foodY = cell / size;
+                break;
+            }
+        }
+        board.clearDirty();
+    }
+
+    /**
+     * Picks the user's next direction: up and down the columns, one step right at each edge.
+     */
+    private Direction steer() {
+        if (dir == Direction.RIGHT) {
+            dir = headY == size - 1 ? Direction.DOWN : Direction.UP;
+        } else if (dir == Direction.UP && headY == size - 1 || dir == Direction.DOWN && headY == 0) {
+            dir = Direction.RIGHT;
+        }
+        switch (dir) {
+            case UP -> headY++;
+            case DOWN -> headY--;
+            default -> headX++;
+        }
+        return dir;
+    }
+
+    @Benchmark
+    public boolean moveSnakes() throws Exception {
+        boolean alive = board.moveSnakes(steer());
+        board.clearDirty();
+        if (!alive || board.isUserDead()) {
+            newBoard();
+        }
+        return alive;
+    }
+
+    @Benchmark
+    public boolean enemyMove() throws Exception {
+        EnemySnake enemy = board.getEnemySnake(0);
+        if (enemy.isDead()) {
+            newBoard();
+            enemy = board.getEnemySnake(0);
+        }
+        try {
+            enemy.move();
+        } catch (Exception e) {
+            // the enemy ran off the board, which Board.moveSnakes() treats as the end of the game
+            newBoard();
+        }
+        board.clearDirty();
+        return enemy.isDead();
+    }
+
+    /**
+     * Spawns a food and clears it again, so the board stays the same between invocations.
+     */
+    @Benchmark
+    public int spawnFood() throws Exception {
+        board.spawnFood();
+        int x = board.getDirtyX(0);
+        int y = board.getDirtyY(0);
+        board.getTile(x, y).clear();
+        board.clearDirty();
+        return x;
+    }
+
+    /**
+     * Eats one food and refills it.
+     */
+    @Benchmark
+    public int updateFood() throws Exception {
+        board.getTile(foodX, foodY).clear();
+        board.clearDirty();
+        board.updateFood();
+        foodX = board.getDirtyX(0);
+        foodY = board.getDirtyY(0);
+        board.clearDirty();
+        return foodX;
+    }
+}
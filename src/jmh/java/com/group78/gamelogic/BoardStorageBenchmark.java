@@ -0,0 +1,107 @@
+package com.group78.gamelogic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old Tile[][] board layout with the flat cell storage used by Board: a full-board scan
+ * counting FOOD tiles, and building an empty board. Run with -prof gc to read the bytes allocated per board
+ * from gc.alloc.rate.norm of the build benchmarks.
+ * <p>
+ * Run with: mvn -Pjmh verify -Djmh.args="BoardStorageBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardStorageBenchmark {
+
+    /** Every FOOD_STRIDE-th tile holds food, on both layouts. */
+    private static final int FOOD_STRIDE = 97;
+
+    /** Width and height of the board. */
+    @Param({"25", "256", "2048"})
+    private int size;
+
+    /** The board in the old layout. */
+    private Tile[][] legacy;
+
+    /** The board in the flat layout. */
+    private Board board;
+
+    @Setup
+    public void setUp() throws Exception {
+        legacy = legacyMap(size, size);
+        board = new Board(size, size, 0, 0, 0, 0, 1L);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if ((j * size + i) % FOOD_STRIDE == 0 && board.getType(i, j) == TileType.EMPTY) {
+                    legacy[i][j].setFood();
+                    board.getTile(i, j).setFood();
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a board map the way Board stored it before the flat cell storage.
+     */
+    private static Tile[][] legacyMap(int width, int height) {
+        Tile[][] map = new Tile[width][height];
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                map[i][j] = new Tile(TileType.EMPTY, i, j);
+            }
+        }
+        return map;
+    }
+
+    @Benchmark
+    public int scanLegacy() {
+        int food = 0;
+        for (Tile[] column : legacy) {
+            for (Tile tile : column) {
+                if (tile.getType() == TileType.FOOD) {
+                    food++;
+                }
+            }
+        }
+        return food;
+    }
+
+    @Benchmark
+    public int scanBoard() {
+        int food = 0;
+        for (int j = 0; j < board.getHeight(); j++) {
+            for (int i = 0; i < board.getWidth(); i++) {
+                if (board.getType(i, j) == TileType.FOOD) {
+                    food++;
+                }
+            }
+        }
+        return food;
+    }
+
+    @Benchmark
+    public Tile[][] buildLegacy() {
+        return legacyMap(size, size);
+    }
+
+    @Benchmark
+    public Board buildBoard() throws Exception {
+        return new Board(size, size, 0, 0, 0, 0, 1L);
+    }
+}
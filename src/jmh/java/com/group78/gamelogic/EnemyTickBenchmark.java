@@ -0,0 +1,70 @@
+package com.group78.gamelogic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a tick of a large board crowded with enemy snakes, deciding their moves one by one or in parallel
+ * on the fork-join pool. Compare runs with -Djava.util.concurrent.ForkJoinPool.common.parallelism=N
+ * to see how the parallel decisions scale with cores.
+ * <p>
+ * Run with: mvn -Pjmh verify -Djmh.args=EnemyTickBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemyTickBenchmark {
+
+    /** Number of enemy snakes on the 1024x1024 board. */
+    @Param({"64", "256"})
+    private int enemies;
+
+    /** Whether enemy decisions are made in parallel. */
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    /** The board being played. */
+    private Board board;
+
+    /** The seed of the next board, so every run plays the same games. */
+    private long seed;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        seed = 1;
+        newBoard();
+    }
+
+    private void newBoard() throws Exception {
+        board = new Board(1024, 1024, 4096, 0, enemies, 512, seed++);
+        board.setParallelThreshold(parallel ? 1 : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Moves every snake once, the user snake straight up, and starts a new board when the game ends.
+     */
+    @Benchmark
+    public boolean tick() throws Exception {
+        boolean alive = board.moveSnakes(Direction.UP);
+        board.clearDirty();
+        if (!alive || board.isEnemiesDead()) {
+            newBoard();
+        }
+        return alive;
+    }
+}
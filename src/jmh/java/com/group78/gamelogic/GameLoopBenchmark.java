@@ -0,0 +1,125 @@
+package com.group78.gamelogic;
+
+import com.group78.frontend.BoardCanvas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times GameLoop.drawBoard() against an offscreen frame, either the JLabel grid or the BoardCanvas back buffer.
+ * step() times a tick alone, so stepAndDraw() minus step() is the cost of drawing the changed tiles.
+ * The components are never shown, so this runs headless.
+ * <p>
+ * Run with: mvn -Pjmh verify -Djmh.args=GameLoopBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GameLoopBenchmark {
+
+    /** The level of the board, which sets its size and enemy count. */
+    @Param({"1", "10"})
+    private int level;
+
+    /** What the loop draws to: "labels" for the JLabel grid, "canvas" for BoardCanvas. */
+    @Param({"labels", "canvas"})
+    private String target;
+
+    /** The loop under test. */
+    private GameLoop loop;
+
+    /** The canvas the loop draws to, or null when it draws to labels. */
+    private BoardCanvas canvas;
+
+    /** The seed of the next board, so every run plays the same games. */
+    private long seed;
+
+    /** The number of ticks played, used to steer the user snake. */
+    private int tick;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        seed = 1;
+        newGame();
+    }
+
+    private void newGame() throws Exception {
+        Board board = new Board(level, seed++);
+        if (target.equals("canvas")) {
+            canvas = new BoardCanvas(board);
+            loop = new GameLoop(canvas, board, null);
+        } else {
+            canvas = null;
+            loop = new GameLoop(labels(board.getWidth(), board.getHeight()), board, null);
+        }
+        loop.drawBoard();
+        tick = 0;
+    }
+
+    /**
+     * Builds the label grid the way the game screens did, inside a panel that is never shown.
+     */
+    private static JLabel[][] labels(int width, int height) {
+        JPanel panel = new JPanel(new GridLayout(height, width));
+        JLabel[][] labels = new JLabel[width][height];
+        for (int j = height - 1; j >= 0; j--) {
+            for (int i = 0; i < width; i++) {
+                labels[i][j] = new JLabel();
+                labels[i][j].setOpaque(true);
+                panel.add(labels[i][j]);
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Runs one tick, moving the user snake in a staircase so games last a while.
+     */
+    private void advance() throws Exception {
+        if (loop.getEngine().isOver()) {
+            newGame();
+        }
+        loop.getEngine().step(tick++ % 8 < 4 ? Direction.UP : Direction.RIGHT);
+    }
+
+    @Benchmark
+    public long step() throws Exception {
+        advance();
+        loop.getEngine().getBoard().clearDirty();
+        return tick;
+    }
+
+    @Benchmark
+    public long stepAndDraw() throws Exception {
+        advance();
+        loop.drawBoard();
+        return tick;
+    }
+
+    @Benchmark
+    public long fullRedraw() {
+        if (canvas != null) {
+            canvas.redrawAll();
+        } else {
+            loop.redrawAll();
+        }
+        loop.drawBoard();
+        return tick;
+    }
+}
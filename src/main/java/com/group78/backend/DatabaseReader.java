@@ -3,16 +3,14 @@ package com.group78.backend;
 // import libraries
 import java.util.ArrayList;
 import java.util.List;
-import java.io.FileWriter;
-import java.io.IOException;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import java.io.FileReader;
 import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 
 /**
- * class reads and writes to json database
+ * class reads and writes to json database.
+ * users are served by the file's UserStore, math tests are read from their file
  * @author jawaad ahmar
  * */
 public class DatabaseReader {
@@ -23,8 +21,24 @@ public class DatabaseReader {
     // filepath for math tests json file
     private static final String MATH_TESTS_FILE = "src/main/math.json";
 
-    // initialize json parser tool
-    private JSONParser parser = new JSONParser();
+    // the users of the users file this reader works on, shared with every other reader of the file
+    private final UserStore users;
+
+    /**
+     * creates a reader for the game's users file, src/main/users.json unless the snake.users.file
+     * system property names another, such as a binary file made by UserStoreConverter
+     */
+    public DatabaseReader() {
+        this(System.getProperty("snake.users.file", USER_FILE));
+    }
+
+    /**
+     * creates a reader for another users file, such as a generated one for benchmarks
+     * @param userFile - path of the users file, json or binary (see UserStore.forFile)
+     */
+    public DatabaseReader(String userFile) {
+        this.users = UserStore.forFile(userFile);
+    }
 
     /***
      * method fetches a user token
@@ -32,72 +46,16 @@ public class DatabaseReader {
      * @return
      */
     public GameToken fetchToken(String username) {
-        try (FileReader reader = new FileReader(USER_FILE)) {
-            JSONArray tokenArray = (JSONArray) parser.parse(reader);
-            for (Object o : tokenArray) {
-                JSONObject token = (JSONObject) o;
-                String userName = (String) token.get("username");
-                if (userName.equals(username)) {
-                    int level = ((Long) token.get("level")).intValue();
-                    int snakeSize = ((Long) token.get("snakeSize")).intValue();
-                    int totalPoints = ((Long) token.get("totalPoints")).intValue();
-                    UserStats stats = new UserStats(level, snakeSize, totalPoints);
-                    return new GameToken(username, stats);
-                }
-            }
-        } catch (IOException | ParseException e) {
-            e.printStackTrace();
-        }
-        return null;
+        return users.fetchToken(username);
     }
 
     /**
-     * method saves game to JSON database
+     * method saves game to the users store: the json repository writes it in the background, the binary store in place
      * @param token - user game token
-     * @return true if user is saved successfully, false if user exists or save failed
      * */
 
     public void saveGame(GameToken token) {
-        JSONArray tokenArray;
-        try (FileReader reader = new FileReader(USER_FILE)) {
-            tokenArray = (JSONArray) parser.parse(reader);
-        } catch (IOException | ParseException e) {
-            tokenArray = new JSONArray();
-        }
-        JSONObject gameObj = new JSONObject();
-        gameObj.put("username", token.getUsername());
-        gameObj.put("level", token.getStats().getLevel());
-        gameObj.put("snakeSize", token.getStats().getSnakeSize());
-        gameObj.put("totalPoints", token.getStats().getTotalPoints());
-
-        // Check if the user already exists
-        JSONObject existingUser = null;
-        for (Object obj : tokenArray) {
-            JSONObject userObj = (JSONObject) obj;
-            if (token.getUsername().equals(userObj.get("username"))) {
-                existingUser = userObj;
-                break;
-            }
-        }
-
-        if (existingUser != null) {
-            // User exists, update their data
-            existingUser.put("level", token.getStats().getLevel());
-            existingUser.put("snakeSize", token.getStats().getSnakeSize());
-            existingUser.put("totalPoints", token.getStats().getTotalPoints());
-        } else {
-            // New user, add to array
-            tokenArray.add(gameObj);
-        }
-
-        // Write the updated array back to the file
-        try (FileWriter file = new FileWriter(USER_FILE)) {
-            file.write(tokenArray.toJSONString());
-        } catch (IOException e) {
-            e.printStackTrace();
-            //return false;
-        }
-        //return true;
+        users.save(token);
     }
 
     /**
@@ -105,31 +63,10 @@ public class DatabaseReader {
      * If the user already exists, no new entry is created.
      *
      * @param username The username for which to create a new game entry.
-     * @return true if a new game was successfully created, false if the user already exists or if an error occurred.
+     * @return true if a new game was successfully created, false if the user already exists.
      */
     public boolean createGame(String username) {
-        if (isUser(username)) {
-            return false;
-        }
-        JSONArray tokenArray;
-        try (FileReader reader = new FileReader(USER_FILE)) {
-            tokenArray = (JSONArray) parser.parse(reader);
-        } catch (IOException | ParseException e) {
-            tokenArray = new JSONArray();
-        }
-        JSONObject gameObj = new JSONObject();
-        gameObj.put("username", username);
-        gameObj.put("level", 1);
-        gameObj.put("snakeSize", 1);
-        gameObj.put("totalPoints", 0);
-        tokenArray.add(gameObj);
-        try (FileWriter file = new FileWriter(USER_FILE)) {
-            file.write(tokenArray.toJSONString());
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
-        }
-        return true;
+        return users.createUser(username);
     }
 
     /**
@@ -167,22 +104,17 @@ public class DatabaseReader {
      * @return List of GameToken objects
      */
     public List<GameToken> fetchAll() {
-        List<GameToken> gameTokens = new ArrayList<>();
-        try (FileReader reader = new FileReader(USER_FILE)) {
-                JSONArray tokenArray = (JSONArray) parser.parse(reader);
-                for (Object o : tokenArray) {
-                    JSONObject token = (JSONObject) o;
-                    String username = (String) token.get("username");
-                    int level = ((Long) token.get("level")).intValue();
-                    int snakeSize = ((Long) token.get("snakeSize")).intValue();
-                    int totalPoints = ((Long) token.get("totalPoints")).intValue();
-                    UserStats stats = new UserStats(level, snakeSize, totalPoints);
-                    gameTokens.add(new GameToken(username, stats));
-                }
-        } catch (IOException | ParseException e) {
-            e.printStackTrace();
-        }
-        return gameTokens;
+        return users.fetchAll();
+    }
+
+    /**
+     * method fetches the players with the most total points (leaderboard), from the store's leaderboard index
+     * rather than a scan of every user
+     * @param k - how many players
+     * @return List of up to k GameToken objects, best first, ties by username
+     */
+    public List<GameToken> fetchTop(int k) {
+        return users.top(k);
     }
 
     /**
@@ -191,20 +123,7 @@ public class DatabaseReader {
      * @return true if user exists, false otherwise
      */
     public boolean isUser(String username) {
-            try (FileReader reader = new FileReader(USER_FILE)) {
-            JSONArray tokenArray = (JSONArray) parser.parse(reader);
-            for (Object o : tokenArray) {
-                JSONObject token = (JSONObject) o;
-                String userName = (String) token.get("username");
-                if (userName.equals(username)) {
-                    return true;
-                }
-            }
-        } catch (IOException | ParseException e) {
-            e.printStackTrace();
-        }
-        return false;
+        return users.isUser(username);
     }
 
 }
-
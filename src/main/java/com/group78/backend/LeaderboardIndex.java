@@ -0,0 +1,77 @@
+package com.group78.backend;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Users ranked by total points, kept up to date by the store on every write, so the top of the leaderboard is
+ * read in O(k) without a scan. Ties are ranked by username. Reads do not block writes; a user being updated
+ * may be missing from a read made at that moment, but never appears twice.
+ */
+final class LeaderboardIndex {
+
+    // most points first, then by username
+    private static final Comparator<Entry> RANK = Comparator.comparingInt((Entry entry) -> entry.totalPoints)
+            .reversed().thenComparing(entry -> entry.username);
+
+    // every user's entry, in rank order
+    private final NavigableSet<Entry> ranked = new ConcurrentSkipListSet<>(RANK);
+
+    // every user's entry in ranked, by username
+    private final ConcurrentHashMap<String, Entry> byName = new ConcurrentHashMap<>();
+
+    /**
+     * records a user's new stats, moving them to their new rank
+     * @param username - of the user
+     * @param stats - of the user, copied
+     */
+    void update(String username, UserStats stats) {
+        Entry entry = new Entry(username, stats);
+        // one update of a user at a time, so ranked holds exactly one entry per user
+        byName.compute(username, (name, old) -> {
+            if (old != null) {
+                ranked.remove(old);
+            }
+            ranked.add(entry);
+            return entry;
+        });
+    }
+
+    /**
+     * returns the best users
+     * @param k - how many users
+     * @return up to k users with the most total points, best first, with copies of their stats
+     */
+    List<GameToken> top(int k) {
+        List<GameToken> top = new ArrayList<>(Math.min(k, 16));
+        Iterator<Entry> entries = ranked.iterator();
+        while (top.size() < k && entries.hasNext()) {
+            Entry entry = entries.next();
+            top.add(new GameToken(entry.username,
+                    new UserStats(entry.level, entry.snakeSize, entry.totalPoints)));
+        }
+        return top;
+    }
+
+    /**
+     * a user's stats at the time of an update
+     */
+    private static final class Entry {
+        private final String username;
+        private final int level;
+        private final int snakeSize;
+        private final int totalPoints;
+
+        private Entry(String username, UserStats stats) {
+            this.username = username;
+            this.level = stats.getLevel();
+            this.snakeSize = stats.getSnakeSize();
+            this.totalPoints = stats.getTotalPoints();
+        }
+    }
+}
@@ -0,0 +1,663 @@
+package com.group78.backend;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps users in a binary file mapped into memory, for deployments with more users than a json file
+ * can be read for at startup. Nothing is parsed: a user is found through a hash index in the file and
+ * their stats are read and written in place, so opening the store and looking a user up cost the same
+ * however many users there are.
+ * <p>
+ * The file is a header followed by regions, each an open-addressing hash index and a table of fixed-size records:
+ * <pre>
+ * header   magic, version, offset of the live region, generation, write count
+ * region   index slots, record capacity, record count, then the region's index and records
+ * index    one int per slot: record number + 1, or 0 for an empty slot  (2 slots per record, linear probing)
+ * records  name length (1 byte), name (MAX_NAME_BYTES of UTF-8), level, snakeSize, totalPoints, padding
+ * </pre>
+ * Records are appended in the order users are created, which is the order fetchAll() returns them in.
+ * A full region is copied to a new region of twice the capacity at the end of the file, and the header is
+ * pointed at it. The file is never replaced while it is mapped; the old regions stay behind as dead space,
+ * smaller in all than the live region.
+ * <p>
+ * Written stats reach the page cache at once and the disk when the operating system writes the pages back,
+ * or on flush() and close(). Make a store from a users json file with UserStoreConverter.
+ * <p>
+ * Readers share a read lock and run concurrently; writers take the write lock and a UserFileLock, so writers
+ * in other processes mapping the same file wait for them, and see their records at once through the shared
+ * mapping. A process that grows the file counts up the generation in the header, and every process that
+ * mapped an older generation maps the file again on its next call.
+ */
+public class MappedUserStore implements UserStore {
+
+    // the file name ending that makes UserStore.forFile() pick this store
+    public static final String EXTENSION = ".bin";
+
+    // the longest username in UTF-8 bytes
+    public static final int MAX_NAME_BYTES = 31;
+
+    // the record capacity of a new file
+    static final int INITIAL_CAPACITY = 1024;
+
+    // "SNKU"
+    private static final int MAGIC = 0x534E4B55;
+    private static final int VERSION = 2;
+
+    // header fields
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int REGION_AT = 8;
+    private static final int GENERATION_AT = 12;
+    private static final int WRITES_AT = 16;
+    private static final int HEADER_BYTES = 32;
+
+    // region fields, from the start of the region
+    private static final int SLOTS_AT = 0;
+    private static final int CAPACITY_AT = 4;
+    private static final int COUNT_AT = 8;
+    private static final int REGION_HEADER_BYTES = 16;
+
+    // record fields
+    private static final int NAME_LENGTH_AT = 0;
+    private static final int NAME_AT = 1;
+    private static final int LEVEL_AT = 32;
+    private static final int SNAKE_SIZE_AT = 36;
+    private static final int TOTAL_POINTS_AT = 40;
+    private static final int RECORD_BYTES = 48;
+
+    // the store of each binary file, by absolute path
+    private static final Map<String, MappedUserStore> OPEN = new ConcurrentHashMap<>();
+
+    // path of the binary users file
+    private final Path file;
+
+    // readers share the read lock; writing, growing and remapping take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // held by writers along with the write lock, so writers in other processes wait too
+    private final UserFileLock fileLock;
+
+    // the mapped file, mapped again when the file grows
+    private MappedByteBuffer buffer;
+
+    // the generation of the file when it was mapped; a newer one in the header means another store grew it
+    private int generation;
+
+    // where the live region starts in the file
+    private int regionAt;
+
+    // the number of index slots, a power of two
+    private int slots;
+
+    // the number of records the region has room for
+    private int capacity;
+
+    // where the index and the records of the region start in the file
+    private int indexAt;
+    private int recordsAt;
+
+    // every user ranked by total points, built by the first top() and updated by writes here; null until then
+    private LeaderboardIndex leaderboard;
+
+    // the write count of the file that the leaderboard reflects; any other count means another process wrote
+    private int leaderboardWrites;
+
+    /**
+     * opens a binary users file, creating an empty one if there is none
+     * @param userFile - path of the binary users file
+     * @throws UncheckedIOException if the file could not be opened or is not a binary users file
+     */
+    public MappedUserStore(String userFile) {
+        this.file = Paths.get(userFile).toAbsolutePath();
+        this.fileLock = new UserFileLock(userFile);
+        try {
+            fileLock.lock();
+            try {
+                if (Files.exists(file)) {
+                    map();
+                } else {
+                    create();
+                }
+            } finally {
+                fileLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * returns the store shared by every reader of a binary users file, opening the file on first use
+     * @param userFile - path of the binary users file
+     * @return the file's store
+     */
+    public static MappedUserStore forFile(String userFile) {
+        String key = Paths.get(userFile).toAbsolutePath().normalize().toString();
+        return OPEN.computeIfAbsent(key, path -> new MappedUserStore(userFile));
+    }
+
+    /**
+     * maps the whole binary users file and reads its header
+     * @throws IOException if the file could not be mapped or is not a binary users file
+     */
+    private void map() throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(file + " is not a binary users file");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        if (mapped.getInt(MAGIC_AT) != MAGIC || mapped.getInt(VERSION_AT) != VERSION) {
+            throw new IOException(file + " is not a binary users file");
+        }
+        // the generation is read before the region, so a region added in between is mapped on the next call
+        int mappedGeneration = mapped.getInt(GENERATION_AT);
+        use(mapped, mapped.getInt(REGION_AT));
+        generation = mappedGeneration;
+    }
+
+    /**
+     * serves the store from a region of a mapping of the file
+     * @param mapped - the mapping
+     * @param region - where the region starts in the file
+     */
+    private void use(MappedByteBuffer mapped, int region) {
+        buffer = mapped;
+        regionAt = region;
+        slots = mapped.getInt(region + SLOTS_AT);
+        capacity = mapped.getInt(region + CAPACITY_AT);
+        indexAt = region + REGION_HEADER_BYTES;
+        recordsAt = indexAt + slots * 4;
+    }
+
+    /**
+     * returns the number of index slots of a region
+     * @param capacity - the number of records the region has room for
+     * @return a power of two of at least twice the capacity
+     */
+    private static int slotsFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    /**
+     * returns the size of a region in bytes
+     * @param capacity - the number of records the region has room for
+     * @return the size of the region
+     */
+    private static long regionBytes(int capacity) {
+        return REGION_HEADER_BYTES + (long) slotsFor(capacity) * 4 + (long) capacity * RECORD_BYTES;
+    }
+
+    /**
+     * writes an empty binary users file to a temp file, forces it to disk and moves it into place, then maps it.
+     * nothing maps the file yet, so it can be moved over. needs the file lock
+     * @throws IOException if the file could not be written
+     */
+    private void create() throws IOException {
+        long size = HEADER_BYTES + regionBytes(INITIAL_CAPACITY);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + REGION_HEADER_BYTES);
+        header.putInt(MAGIC_AT, MAGIC);
+        header.putInt(VERSION_AT, VERSION);
+        header.putInt(REGION_AT, HEADER_BYTES);
+        header.putInt(HEADER_BYTES + SLOTS_AT, slotsFor(INITIAL_CAPACITY));
+        header.putInt(HEADER_BYTES + CAPACITY_AT, INITIAL_CAPACITY);
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(header, 0);
+                // the rest of the file reads as zeros, so the index starts empty
+                channel.write(ByteBuffer.allocate(1), size - 1);
+                channel.force(true);
+            }
+            UserRepository.move(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        map();
+    }
+
+    /**
+     * grows the file in place: extends it by a region with room for more records, copies and indexes the
+     * records into it and forces it to disk, then points the header at it. the file is never replaced, so
+     * every mapping of it stays valid. needs the write lock and the file lock
+     * @param newCapacity - the number of records the new region has room for
+     * @throws IOException if the file could not be grown, in which case the old region is still served
+     */
+    private void grow(int newCapacity) throws IOException {
+        MappedByteBuffer mapped;
+        int newRegionAt;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            long size = end + regionBytes(newCapacity);
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " cannot hold " + newCapacity + " users");
+            }
+            // extend the file before mapping it; the new region reads as zeros, so its index starts empty
+            channel.write(ByteBuffer.allocate(1), size - 1);
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            newRegionAt = (int) end;
+        }
+        MappedByteBuffer old = buffer;
+        int oldRegionAt = regionAt;
+        int oldRecordsAt = recordsAt;
+        int records = count();
+        mapped.putInt(newRegionAt + SLOTS_AT, slotsFor(newCapacity));
+        mapped.putInt(newRegionAt + CAPACITY_AT, newCapacity);
+        use(mapped, newRegionAt);
+        try {
+            // copy the old records, which the new mapping covers too, and index them again
+            for (int record = 0; record < records; record++) {
+                mapped.put(recordsAt + record * RECORD_BYTES, mapped, oldRecordsAt + record * RECORD_BYTES, RECORD_BYTES);
+                index(record, nameOf(record));
+            }
+            mapped.putInt(regionAt + COUNT_AT, records);
+            mapped.force();
+        } catch (RuntimeException e) {
+            // keep serving the old region; the file keeps the unused tail
+            use(old, oldRegionAt);
+            throw e;
+        }
+        // stores that mapped an older generation map the file again on their next call
+        mapped.putInt(REGION_AT, newRegionAt);
+        generation = mapped.getInt(GENERATION_AT) + 1;
+        mapped.putInt(GENERATION_AT, generation);
+        mapped.force(0, HEADER_BYTES);
+    }
+
+    /**
+     * method fetches a user token straight from their record
+     * @param username - user's username
+     * @return the user's token, with a copy of their stats, or null if there is no such user
+     */
+    @Override
+    public GameToken fetchToken(String username) {
+        lockRead();
+        try {
+            int record = find(encode(username));
+            return record < 0 ? null : new GameToken(username, statsOf(record));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * method checks if user exists or not
+     * @param username - of user to be checked
+     * @return true if user exists, false otherwise
+     */
+    @Override
+    public boolean isUser(String username) {
+        lockRead();
+        try {
+            return find(encode(username)) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * creates a user at level 1, unless they already exist
+     * @param username - of the new user
+     * @return true if the user was created, false if they already exist
+     * @throws IllegalArgumentException if the username is longer than MAX_NAME_BYTES in UTF-8
+     */
+    @Override
+    public boolean createUser(String username) {
+        byte[] name = checkName(username);
+        lockWrite();
+        try {
+            if (find(name) >= 0) {
+                return false;
+            }
+            UserStats created = new UserStats(1, 1, 0);
+            append(name, created);
+            recordWrite(username, created);
+            return true;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * saves a user's stats over their record, or appends a record for a new user
+     * @param token - user game token
+     * @throws IllegalArgumentException if the username is longer than MAX_NAME_BYTES in UTF-8
+     */
+    @Override
+    public void save(GameToken token) {
+        byte[] name = checkName(token.getUsername());
+        lockWrite();
+        try {
+            int record = find(name);
+            if (record < 0) {
+                append(name, token.getStats());
+            } else {
+                writeStats(record, token.getStats());
+            }
+            recordWrite(token.getUsername(), token.getStats());
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * method fetches all users in file order (dashboard)
+     * @return List of GameToken objects, with copies of their stats
+     */
+    @Override
+    public List<GameToken> fetchAll() {
+        lockRead();
+        try {
+            int records = count();
+            List<GameToken> gameTokens = new ArrayList<>(records);
+            for (int record = 0; record < records; record++) {
+                gameTokens.add(tokenOf(record));
+            }
+            return gameTokens;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * returns the users with the most total points. the leaderboard index is built from every record on
+     * the first call, and again after another process wrote the file; otherwise this reads only the index
+     * @param k - how many users
+     * @return up to k users, best first, ties by username, with copies of their stats
+     */
+    @Override
+    public List<GameToken> top(int k) {
+        lockRead();
+        try {
+            if (leaderboard != null && leaderboardWrites == buffer.getInt(WRITES_AT)) {
+                return leaderboard.top(k);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            remapIfGrown();
+            if (leaderboard == null || leaderboardWrites != buffer.getInt(WRITES_AT)) {
+                LeaderboardIndex rebuilt = new LeaderboardIndex();
+                int records = count();
+                for (int record = 0; record < records; record++) {
+                    rebuilt.update(new String(nameOf(record), StandardCharsets.UTF_8), statsOf(record));
+                }
+                leaderboard = rebuilt;
+                leaderboardWrites = buffer.getInt(WRITES_AT);
+            }
+            return leaderboard.top(k);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * counts a write in the file's header and ranks the user on the leaderboard, if it is up to date. needs
+     * the write lock
+     * @param username - of the written user
+     * @param stats - of the written user
+     */
+    private void recordWrite(String username, UserStats stats) {
+        int writes = buffer.getInt(WRITES_AT);
+        buffer.putInt(WRITES_AT, writes + 1);
+        if (leaderboard != null && leaderboardWrites == writes) {
+            leaderboard.update(username, stats);
+            leaderboardWrites = writes + 1;
+        }
+    }
+
+    /**
+     * returns the number of users in the file
+     * @return the user count
+     */
+    public int getUserCount() {
+        lockRead();
+        try {
+            return count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * returns the number of users the file has room for before it grows
+     * @return the record capacity
+     */
+    public int getCapacity() {
+        lockRead();
+        try {
+            return capacity;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * forces every written record to disk
+     * @return true, since the pages are written by the operating system; a failure surfaces as an error
+     */
+    @Override
+    public boolean flush() {
+        lockRead();
+        try {
+            buffer.force();
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * forces every written record to disk and closes the lock file. the store still serves reads and writes
+     * afterwards, but forFile() opens the file again
+     */
+    @Override
+    public void close() {
+        OPEN.remove(file.normalize().toString(), this);
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            fileLock.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * takes the read lock, first mapping the file again if another store has grown it
+     */
+    private void lockRead() {
+        lock.readLock().lock();
+        if (buffer.getInt(GENERATION_AT) != generation) {
+            lock.readLock().unlock();
+            lock.writeLock().lock();
+            try {
+                remapIfGrown();
+                // downgrade, so no writer can slip in before the read
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * takes the write lock and the file lock, then maps the file again if another store has grown it
+     * @throws UncheckedIOException if the file could not be locked or mapped, in which case nothing is held
+     */
+    private void lockWrite() {
+        lock.writeLock().lock();
+        try {
+            fileLock.lock();
+        } catch (IOException e) {
+            lock.writeLock().unlock();
+            throw new UncheckedIOException(e);
+        }
+        try {
+            remapIfGrown();
+        } catch (RuntimeException e) {
+            unlockWrite();
+            throw e;
+        }
+    }
+
+    private void unlockWrite() {
+        fileLock.unlock();
+        lock.writeLock().unlock();
+    }
+
+    /**
+     * maps the store's file again if another store has grown it since it was mapped. needs the write lock
+     */
+    private void remapIfGrown() {
+        if (buffer.getInt(GENERATION_AT) != generation) {
+            try {
+                map();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * returns the number of records, from the region, since other processes may have appended some
+     */
+    private int count() {
+        return buffer.getInt(regionAt + COUNT_AT);
+    }
+
+    /**
+     * looks a name up in the hash index
+     * @param name - the username in UTF-8
+     * @return the user's record number, or -1 if there is no such user
+     */
+    private int find(byte[] name) {
+        int mask = slots - 1;
+        for (int slot = hash(name) & mask; ; slot = (slot + 1) & mask) {
+            int entry = buffer.getInt(indexAt + slot * 4);
+            if (entry == 0) {
+                return -1;
+            }
+            if (nameEquals(entry - 1, name)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * puts a record in the first free slot of its name's probe sequence
+     * @param record - the record number
+     * @param name - the record's username in UTF-8
+     */
+    private void index(int record, byte[] name) {
+        int mask = slots - 1;
+        int slot = hash(name) & mask;
+        while (buffer.getInt(indexAt + slot * 4) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        buffer.putInt(indexAt + slot * 4, record + 1);
+    }
+
+    /**
+     * appends a record for a new user, growing the file first if it is full.
+     * the record is written before it is indexed and counted, so a crash never indexes half a record
+     * @param name - the username in UTF-8
+     * @param stats - the user's stats
+     */
+    private void append(byte[] name, UserStats stats) {
+        if (count() == capacity) {
+            try {
+                grow(capacity * 2);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int record = count();
+        int at = recordsAt + record * RECORD_BYTES;
+        buffer.put(at + NAME_LENGTH_AT, (byte) name.length);
+        buffer.put(at + NAME_AT, name);
+        writeStats(record, stats);
+        index(record, name);
+        buffer.putInt(regionAt + COUNT_AT, record + 1);
+    }
+
+    private void writeStats(int record, UserStats stats) {
+        int at = recordsAt + record * RECORD_BYTES;
+        buffer.putInt(at + LEVEL_AT, stats.getLevel());
+        buffer.putInt(at + SNAKE_SIZE_AT, stats.getSnakeSize());
+        buffer.putInt(at + TOTAL_POINTS_AT, stats.getTotalPoints());
+    }
+
+    private GameToken tokenOf(int record) {
+        return new GameToken(new String(nameOf(record), StandardCharsets.UTF_8), statsOf(record));
+    }
+
+    private UserStats statsOf(int record) {
+        int at = recordsAt + record * RECORD_BYTES;
+        return new UserStats(buffer.getInt(at + LEVEL_AT), buffer.getInt(at + SNAKE_SIZE_AT),
+                buffer.getInt(at + TOTAL_POINTS_AT));
+    }
+
+    private byte[] nameOf(int record) {
+        int at = recordsAt + record * RECORD_BYTES;
+        byte[] name = new byte[buffer.get(at + NAME_LENGTH_AT)];
+        buffer.get(at + NAME_AT, name);
+        return name;
+    }
+
+    private boolean nameEquals(int record, byte[] name) {
+        int at = recordsAt + record * RECORD_BYTES;
+        if (buffer.get(at + NAME_LENGTH_AT) != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (buffer.get(at + NAME_AT + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encode(String username) {
+        return username.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] checkName(String username) {
+        byte[] name = encode(username);
+        if (name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("MappedUserStore: username longer than "
+                    + MAX_NAME_BYTES + " bytes: " + username);
+        }
+        return name;
+    }
+
+    /**
+     * FNV-1a hash of a name, spread so that the low bits used for the slot depend on every byte
+     * @param name - the username in UTF-8
+     * @return the hash
+     */
+    private static int hash(byte[] name) {
+        int h = 0x811C9DC5;
+        for (byte b : name) {
+            h = (h ^ (b & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
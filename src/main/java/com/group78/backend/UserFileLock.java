@@ -0,0 +1,101 @@
+package com.group78.backend;
+
+import com.group78.gamelogic.EventLog;
+import com.group78.gamelogic.LogLevel;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock taken by writers of a users file, across threads and across processes.
+ * Within the JVM it is a ReentrantLock shared by every store of the file; the thread holding it also holds
+ * a FileChannel lock on a lock file next to the users file, so writers in other processes wait too.
+ * The lock file is never deleted, since the users file itself may be replaced while another process waits.
+ */
+final class UserFileLock {
+
+    // the in-process lock of each users file, by absolute path
+    private static final Map<String, ReentrantLock> IN_PROCESS = new ConcurrentHashMap<>();
+
+    // the lock file, users file path + ".lock"
+    private final Path lockFile;
+
+    // held by the writing thread of this JVM
+    private final ReentrantLock inProcess;
+
+    // the open lock file, or null until the first lock
+    private FileChannel channel;
+
+    // the lock on the lock file, held while inProcess is
+    private FileLock held;
+
+    /**
+     * creates the lock of a users file
+     * @param userFile - path of the users file
+     */
+    UserFileLock(String userFile) {
+        Path path = Paths.get(userFile).toAbsolutePath().normalize();
+        this.lockFile = Paths.get(path + ".lock");
+        this.inProcess = IN_PROCESS.computeIfAbsent(path.toString(), key -> new ReentrantLock());
+    }
+
+    /**
+     * waits until no other thread or process writes the users file. the lock is reentrant
+     * @throws IOException if the lock file could not be locked, in which case nothing is held
+     */
+    void lock() throws IOException {
+        inProcess.lock();
+        if (inProcess.getHoldCount() > 1) {
+            return;
+        }
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            }
+            held = channel.lock();
+        } catch (IOException | RuntimeException e) {
+            inProcess.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * releases one hold of the lock, and the lock file with the last one
+     */
+    void unlock() {
+        try {
+            if (inProcess.getHoldCount() == 1 && held != null) {
+                held.release();
+                held = null;
+            }
+        } catch (IOException e) {
+            // closing the channel releases it anyway
+            EventLog.game().log(LogLevel.WARN, "UserFileLock: could not release " + lockFile, e);
+            close();
+        } finally {
+            inProcess.unlock();
+        }
+    }
+
+    /**
+     * closes the lock file; the next lock opens it again
+     */
+    void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                EventLog.game().log(LogLevel.WARN, "UserFileLock: could not close " + lockFile, e);
+            }
+            channel = null;
+            held = null;
+        }
+    }
+}
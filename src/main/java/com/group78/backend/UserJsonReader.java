@@ -0,0 +1,286 @@
+package com.group78.backend;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull parser for a users json file: reads the array one user at a time, so UserRepository loads the file
+ * straight into its map rather than through the whole file as json-simple objects.
+ * Fields may come in any order; fields other than username, level, snakeSize and totalPoints are skipped,
+ * and a missing stat reads as 0.
+ */
+public class UserJsonReader implements Closeable {
+
+    // the file being read
+    private final Reader in;
+
+    // the field name being read, reused for every field
+    private final StringBuilder key = new StringBuilder(16);
+
+    // the character read ahead by peek(), or -2 if none
+    private int ahead = -2;
+
+    // the number of characters read, for error messages
+    private long position;
+
+    // whether the opening bracket has been read
+    private boolean started;
+
+    // whether the closing bracket has been read
+    private boolean finished;
+
+    /**
+     * creates a reader over a users json array
+     * @param in - the json, buffered since it is read a character at a time; the reader closes it when closed
+     */
+    public UserJsonReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * reads the next user of the array
+     * @return the user's token, or null once the array has ended
+     * @throws IOException if reading fails or the json is not an array of user objects
+     */
+    public GameToken next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            expect('[');
+            started = true;
+            if (peekToken() == ']') {
+                read();
+                finished = true;
+                return null;
+            }
+        } else {
+            int c = readToken();
+            if (c == ']') {
+                finished = true;
+                return null;
+            }
+            if (c != ',') {
+                throw error("',' or ']'", c);
+            }
+        }
+        return readUser();
+    }
+
+    /**
+     * reads one user object
+     * @return the user's token
+     * @throws IOException if reading fails or the object is not well formed
+     */
+    private GameToken readUser() throws IOException {
+        expect('{');
+        String username = null;
+        int level = 0;
+        int snakeSize = 0;
+        int totalPoints = 0;
+        if (peekToken() == '}') {
+            read();
+        } else {
+            int c;
+            do {
+                expect('"');
+                readString(key);
+                expect(':');
+                if ("username".contentEquals(key)) {
+                    expect('"');
+                    username = readString(new StringBuilder()).toString();
+                } else if ("level".contentEquals(key)) {
+                    level = readInt();
+                } else if ("snakeSize".contentEquals(key)) {
+                    snakeSize = readInt();
+                } else if ("totalPoints".contentEquals(key)) {
+                    totalPoints = readInt();
+                } else {
+                    skipValue();
+                }
+                c = readToken();
+            } while (c == ',');
+            if (c != '}') {
+                throw error("',' or '}'", c);
+            }
+        }
+        if (username == null) {
+            throw new IOException("users json: user without a username before character " + position);
+        }
+        return new GameToken(username, new UserStats(level, snakeSize, totalPoints));
+    }
+
+    /**
+     * reads the characters of a string after its opening quote, up to and including its closing quote
+     * @param out - where to put the characters, cleared first
+     * @return out
+     * @throws IOException if reading fails or the string is not well formed
+     */
+    private StringBuilder readString(StringBuilder out) throws IOException {
+        out.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return out;
+            }
+            if (c < 0) {
+                throw error("'\"'", c);
+            }
+            if (c != '\\') {
+                out.append((char) c);
+                continue;
+            }
+            c = read();
+            switch (c) {
+                case '"': case '\\': case '/': out.append((char) c); break;
+                case 'b': out.append('\b'); break;
+                case 'f': out.append('\f'); break;
+                case 'n': out.append('\n'); break;
+                case 'r': out.append('\r'); break;
+                case 't': out.append('\t'); break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw new IOException("users json: bad \\u escape before character " + position);
+                        }
+                        code = code * 16 + digit;
+                    }
+                    out.append((char) code);
+                    break;
+                default:
+                    throw error("an escape", c);
+            }
+        }
+    }
+
+    /**
+     * reads a whole number
+     * @return the number
+     * @throws IOException if reading fails or the value is not a whole number that fits an int
+     */
+    private int readInt() throws IOException {
+        int c = readToken();
+        boolean negative = c == '-';
+        if (negative) {
+            c = read();
+        }
+        if (c < '0' || c > '9') {
+            throw error("a number", c);
+        }
+        long value = 0;
+        while (true) {
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new IOException("users json: number too large before character " + position);
+            }
+            int next = peek();
+            if (next < '0' || next > '9') {
+                break;
+            }
+            c = read();
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("users json: number too large before character " + position);
+        }
+        return (int) value;
+    }
+
+    /**
+     * skips a value of a field this reader does not use: a string, number, literal, object or array
+     * @throws IOException if reading fails or the value is not well formed
+     */
+    private void skipValue() throws IOException {
+        int c = readToken();
+        if (c == '"') {
+            readString(key);
+        } else if (c == '{' || c == '[') {
+            int depth = 1;
+            while (depth > 0) {
+                c = read();
+                if (c == '"') {
+                    readString(key);
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                } else if (c < 0) {
+                    throw error("the end of a value", c);
+                }
+            }
+        } else {
+            // a number, true, false or null runs up to the next delimiter
+            while (true) {
+                int next = peek();
+                if (next < 0 || next == ',' || next == '}' || next == ']' || Character.isWhitespace(next)) {
+                    break;
+                }
+                read();
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = readToken();
+        if (c != expected) {
+            throw error("'" + expected + "'", c);
+        }
+    }
+
+    private IOException error(String expected, int found) {
+        String what = found < 0 ? "the end of the file" : "'" + (char) found + "'";
+        return new IOException("users json: expected " + expected + " but found " + what + " at character " + position);
+    }
+
+    /**
+     * reads the next character that is not whitespace
+     */
+    private int readToken() throws IOException {
+        int c = read();
+        while (c >= 0 && Character.isWhitespace(c)) {
+            c = read();
+        }
+        return c;
+    }
+
+    /**
+     * looks at the next character that is not whitespace without reading it
+     */
+    private int peekToken() throws IOException {
+        int c = peek();
+        while (c >= 0 && Character.isWhitespace(c)) {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int read() throws IOException {
+        int c = ahead;
+        if (c == -2) {
+            c = in.read();
+        }
+        ahead = -2;
+        position++;
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (ahead == -2) {
+            ahead = in.read();
+        }
+        return ahead;
+    }
+
+    /**
+     * closes the json
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,728 @@
+package com.group78.backend;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * Keeps the users of a users json file in memory.
+ * The file is read once, reads are served from a ConcurrentHashMap, and writes only mark the user dirty:
+ * a background thread writes the dirty users in batches, every FLUSH_INTERVAL_MILLIS, and again when the
+ * JVM shuts down. Looking a user up therefore costs the same however large the file is.
+ * <p>
+ * Written users are appended to a journal next to the users file, one json record per line holding a
+ * sequence number and the user's new stats, so a write costs one record rather than the whole file.
+ * The users file is a snapshot: on startup the journal is replayed on top of it, and once the journal
+ * holds more records than there are users the background thread compacts it, folding it into a new
+ * snapshot. Snapshots replace the users file atomically with a forced temp file, so a crash mid-write
+ * never loses it.
+ * <p>
+ * Every reader of a file shares one repository, obtained with forFile().
+ * The stats handed out are copies, so changing them does nothing until they are saved.
+ * <p>
+ * Reads and writes of different users never block each other, since every user's stats are replaced in one
+ * step in the map. Writing the journal or a snapshot takes a UserFileLock, so repositories of the same file in
+ * other processes write one at a time; before writing, a repository applies what the others wrote since it
+ * last looked, except for users it has newer stats of itself, so no process loses another's writes.
+ * Another process's writes are therefore seen here on the next write, not at once.
+ */
+public class UserRepository implements UserStore {
+
+    // how long written users may wait before the background thread writes them to the journal
+    static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    // the fewest journal records worth compacting, however few users there are
+    static final int COMPACT_MIN_RECORDS = 1024;
+
+    // the repository of each users file, by absolute path
+    private static final Map<String, UserRepository> OPEN = new ConcurrentHashMap<>();
+
+    // filepath of the users json file, the snapshot
+    private final String userFile;
+
+    // the journal of writes since the snapshot
+    private final Path journalFile;
+
+    // the journal being folded into a new snapshot; only left on disk if compacting failed or crashed
+    private final Path compactingFile;
+
+    // the stats of every user, by username; the values are never changed once stored
+    private final ConcurrentHashMap<String, UserStats> users = new ConcurrentHashMap<>();
+
+    // usernames in the order they were read or created, which is the order they are written in
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+
+    // every user ranked by total points, updated with the map
+    private final LeaderboardIndex leaderboard = new LeaderboardIndex();
+
+    // usernames written since the last flush
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    // held while the journal or the snapshot is being written, so two flushes never write at once
+    private final Object writeLock = new Object();
+
+    // held along with writeLock while writing, so repositories of the file in other processes write one at a time
+    private final UserFileLock fileLock;
+
+    // the snapshot as last read or written here, to notice another process compacting; null if there is none
+    private Object snapshotKey;
+
+    // the journal as last read or written here, to notice another process starting a new one; null if there is none
+    private Object journalKey;
+
+    // how much of the journal has been read or written here; more than this was written by other processes
+    private long journalEnd;
+
+    // the open journal, or null until the next append
+    private FileChannel journal;
+
+    // the sequence number of the last record of the journal
+    private long lastSeq;
+
+    // the number of records in the journal
+    private long journalRecords;
+
+    // the number of records in the journal set aside for compacting
+    private long compactingRecords;
+
+    // whether the background thread has been started
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    // set by close() to stop the background thread
+    private volatile boolean closed;
+
+    // the background thread, once started
+    private volatile Thread flusher;
+
+    // the shutdown hook closing the repository, registered with the background thread and removed by close()
+    private volatile Thread shutdownHook;
+
+    /**
+     * creates a repository and reads every user of a users file into memory, replaying its journal.
+     * a missing or unreadable file gives an empty repository
+     * @param userFile - path of the users json file
+     */
+    public UserRepository(String userFile) {
+        this.userFile = userFile;
+        this.journalFile = Paths.get(userFile + ".journal");
+        this.compactingFile = Paths.get(userFile + ".journal.compacting");
+        this.fileLock = new UserFileLock(userFile);
+        boolean locked = false;
+        try {
+            fileLock.lock();
+            locked = true;
+        } catch (IOException e) {
+            // read the files anyway; writes try to lock again
+            e.printStackTrace();
+        }
+        try {
+            load(Collections.emptySet());
+            compactingRecords = replay(compactingFile);
+            journalRecords = replay(journalFile);
+            snapshotKey = fileKey(Paths.get(userFile));
+            journalKey = fileKey(journalFile);
+            journalEnd = journalKey == null ? 0 : Files.size(journalFile);
+            if (Files.exists(compactingFile)) {
+                // a compaction did not finish: finish it before the journal is compacted again
+                compact();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            if (locked) {
+                fileLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * returns the repository shared by every reader of a users file, reading the file on first use
+     * @param userFile - path of the users json file
+     * @return the file's repository
+     */
+    public static UserRepository forFile(String userFile) {
+        String key = Paths.get(userFile).toAbsolutePath().normalize().toString();
+        return OPEN.computeIfAbsent(key, path -> new UserRepository(userFile));
+    }
+
+    /**
+     * streams every user in the snapshot into the map, one at a time
+     * @param skip - users whose stats in the map are newer than the snapshot's
+     */
+    private void load(Set<String> skip) {
+        try (UserJsonReader reader = new UserJsonReader(
+                Files.newBufferedReader(Paths.get(userFile), StandardCharsets.UTF_8))) {
+            GameToken token;
+            while ((token = reader.next()) != null) {
+                if (!skip.contains(token.getUsername())) {
+                    store(token.getUsername(), token.getStats());
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // no users yet, the file is created by the first compaction
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * applies the records of a journal file to the map, in order
+     * @param file - the journal file
+     * @return the number of records read
+     */
+    private long replay(Path file) {
+        // sequence numbers only order the records of one journal
+        lastSeq = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return replay(reader, Collections.emptySet());
+        } catch (NoSuchFileException e) {
+            // nothing written since the snapshot
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * applies journal records to the map, in order.
+     * a line that does not parse, such as the last one after a crash mid-append, is skipped,
+     * and so is a record whose sequence number is not above the last one read
+     * @param reader - the journal lines
+     * @param skip - users whose stats in the map are newer than the journal's
+     * @return the number of records read
+     * @throws IOException if reading fails
+     */
+    private long replay(BufferedReader reader, Set<String> skip) throws IOException {
+        long read = 0;
+        JSONParser parser = new JSONParser();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            JSONObject record;
+            try {
+                record = (JSONObject) parser.parse(line);
+            } catch (ParseException | RuntimeException e) {
+                // a damaged line, whatever the parser makes of it
+                continue;
+            }
+            long seq = (Long) record.get("seq");
+            if (seq > lastSeq) {
+                lastSeq = seq;
+                if (!skip.contains((String) record.get("username"))) {
+                    apply(record);
+                }
+                read++;
+            }
+        }
+        return read;
+    }
+
+    /**
+     * applies what repositories of the file in other processes wrote since this one last read or wrote it:
+     * a new snapshot if one compacted, then the journal records beyond journalEnd. users written here and not
+     * yet in the journal keep their stats, which are newer. needs the file lock
+     * @param batch - users about to be appended here
+     * @throws IOException if the files could not be read
+     */
+    private void catchUp(Collection<String> batch) throws IOException {
+        Set<String> mine = new HashSet<>(batch);
+        mine.addAll(dirty);
+        Object snapshot = fileKey(Paths.get(userFile));
+        if (!Objects.equals(snapshot, snapshotKey)) {
+            // another process folded the journal known here into a new snapshot
+            closeJournal();
+            load(mine);
+            snapshotKey = snapshot;
+            journalKey = null;
+            journalRecords = 0;
+            compactingRecords = 0;
+        }
+        Object key = fileKey(journalFile);
+        if (!Objects.equals(key, journalKey)) {
+            // a journal started by another process, all of it new here
+            closeJournal();
+            journalKey = key;
+            journalEnd = 0;
+            lastSeq = 0;
+        }
+        if (key != null && Files.size(journalFile) > journalEnd) {
+            try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+                channel.position(journalEnd);
+                journalRecords += replay(new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8)), mine);
+                journalEnd = channel.size();
+            }
+        }
+    }
+
+    /**
+     * returns what identifies a file on disk, such as its inode, which changes when the file is replaced
+     * @param file - the file
+     * @return the file's key, or null if there is no such file or the file system gives no keys
+     * @throws IOException if the file could not be read
+     */
+    private static Object fileKey(Path file) throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * stores the stats of a snapshot entry or journal record
+     * @param token - the json object, with username, level, snakeSize and totalPoints
+     */
+    private void apply(JSONObject token) {
+        String username = (String) token.get("username");
+        int level = ((Long) token.get("level")).intValue();
+        int snakeSize = ((Long) token.get("snakeSize")).intValue();
+        int totalPoints = ((Long) token.get("totalPoints")).intValue();
+        store(username, new UserStats(level, snakeSize, totalPoints));
+    }
+
+    /**
+     * stores a user's stats and ranks them on the leaderboard, in one step for the user
+     * @param username - of the user
+     * @param stats - of the user, owned by the map from now on
+     */
+    private void store(String username, UserStats stats) {
+        users.compute(username, (name, old) -> {
+            if (old == null) {
+                order.add(name);
+            }
+            leaderboard.update(name, stats);
+            return stats;
+        });
+    }
+
+    /**
+     * method fetches a user token
+     * @param username - user's username
+     * @return the user's token, with a copy of their stats, or null if there is no such user
+     */
+    @Override
+    public GameToken fetchToken(String username) {
+        UserStats stats = users.get(username);
+        return stats == null ? null : new GameToken(username, copy(stats));
+    }
+
+    /**
+     * method checks if user exists or not
+     * @param username - of user to be checked
+     * @return true if user exists, false otherwise
+     */
+    @Override
+    public boolean isUser(String username) {
+        return users.containsKey(username);
+    }
+
+    /**
+     * creates a user at level 1, unless they already exist
+     * @param username - of the new user
+     * @return true if the user was created, false if they already exist
+     */
+    @Override
+    public boolean createUser(String username) {
+        UserStats created = new UserStats(1, 1, 0);
+        UserStats stored = users.computeIfAbsent(username, name -> {
+            order.add(name);
+            leaderboard.update(name, created);
+            return created;
+        });
+        if (stored != created) {
+            return false;
+        }
+        markDirty(username);
+        // a new account should not wait for the next interval
+        requestFlush();
+        return true;
+    }
+
+    /**
+     * saves a user's stats, creating the user if needed. the file is written behind
+     * @param token - user game token
+     */
+    @Override
+    public void save(GameToken token) {
+        String username = token.getUsername();
+        store(username, copy(token.getStats()));
+        markDirty(username);
+    }
+
+    /**
+     * method fetches all users in file order (dashboard)
+     * @return List of GameToken objects, with copies of their stats
+     */
+    @Override
+    public List<GameToken> fetchAll() {
+        List<GameToken> gameTokens = new ArrayList<>(users.size());
+        for (String username : order) {
+            UserStats stats = users.get(username);
+            gameTokens.add(new GameToken(username, copy(stats)));
+        }
+        return gameTokens;
+    }
+
+    /**
+     * returns the users with the most total points from the leaderboard index, without a scan
+     * @param k - how many users
+     * @return up to k users, best first, ties by username, with copies of their stats
+     */
+    @Override
+    public List<GameToken> top(int k) {
+        return leaderboard.top(k);
+    }
+
+    /**
+     * returns the number of users written since the last flush
+     * @return the dirty user count
+     */
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    /**
+     * returns the number of journal records not folded into the snapshot yet, which the next compaction folds
+     * @return the journal record count
+     */
+    public long getJournalRecords() {
+        synchronized (writeLock) {
+            return journalRecords + compactingRecords;
+        }
+    }
+
+    /**
+     * appends a record for every dirty user to the journal now and forces it to disk.
+     * callers flushing while another flush is writing wait for it, and are then covered by it
+     * unless they saved something new meanwhile, so concurrent flushes coalesce into as few writes as possible
+     * @return true if every saved user is on disk, false if writing the journal failed
+     */
+    @Override
+    public boolean flush() {
+        synchronized (writeLock) {
+            if (dirty.isEmpty()) {
+                return true;
+            }
+            // users written from here on stay dirty for the next flush
+            List<String> batch = new ArrayList<>(dirty);
+            dirty.removeAll(batch);
+            try {
+                fileLock.lock();
+                try {
+                    catchUp(batch);
+                    appendRecords(batch);
+                } finally {
+                    fileLock.unlock();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                dirty.addAll(batch);
+                closeJournal();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * appends one record per user to the journal and forces it, opening the journal if needed
+     * @param batch - the usernames to write
+     * @throws IOException if the journal could not be written
+     */
+    private void appendRecords(List<String> batch) throws IOException {
+        StringBuilder records = new StringBuilder(batch.size() * 96);
+        for (String username : batch) {
+            records.append("{\"seq\":").append(++lastSeq).append(',');
+            writeUser(records, username, users.get(username));
+            records.append('\n');
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(records));
+        FileChannel channel = openJournal();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        journalRecords += batch.size();
+        journalEnd = channel.size();
+        if (journalKey == null) {
+            journalKey = fileKey(journalFile);
+        }
+    }
+
+    /**
+     * returns the open journal, opening it for appending first if needed.
+     * a journal whose last line was cut short by a crash or a failed write gets a line break,
+     * so the next record starts on a line of its own
+     * @return the journal channel
+     * @throws IOException if the journal could not be opened
+     */
+    private FileChannel openJournal() throws IOException {
+        if (journal == null) {
+            FileChannel channel = FileChannel.open(journalFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            ByteBuffer last = ByteBuffer.allocate(1);
+            if (size > 0 && (channel.read(last, size - 1) != 1 || last.get(0) != '\n')) {
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}), size);
+            }
+            channel.position(channel.size());
+            journal = channel;
+        }
+        return journal;
+    }
+
+    /**
+     * closes the journal; the next append opens it again
+     */
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            journal = null;
+        }
+    }
+
+    /**
+     * folds the journal into a new snapshot: the journal is set aside, every user is written to the users file,
+     * then the set-aside journal is deleted. after a crash, whatever is left is replayed on startup
+     * @return true if the journal was folded, false if writing failed, in which case it is tried again next time
+     */
+    public boolean compact() {
+        synchronized (writeLock) {
+            try {
+                fileLock.lock();
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            }
+            try {
+                if (!flush()) {
+                    return false;
+                }
+                // the snapshot must hold what other processes wrote too
+                catchUp(Collections.emptyList());
+                if (!Files.exists(compactingFile)) {
+                    // a journal left by a failed compaction is not in any snapshot yet, so it must not be replaced
+                    closeJournal();
+                    if (Files.exists(journalFile)) {
+                        move(journalFile, compactingFile);
+                    }
+                    compactingRecords = journalRecords;
+                    journalRecords = 0;
+                    journalKey = null;
+                    journalEnd = 0;
+                }
+                writeSnapshot();
+                snapshotKey = fileKey(Paths.get(userFile));
+                Files.deleteIfExists(compactingFile);
+                compactingRecords = 0;
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            } finally {
+                fileLock.unlock();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * asks the background thread to write the dirty users now rather than at the end of its interval.
+     * returns at once; requests made while a write is running are coalesced into one more write
+     */
+    public void requestFlush() {
+        Thread thread = flusher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * writes every user to a temp file next to the users file, forces it to disk and moves it over the
+     * users file in one step, so a crash leaves either the old file or the new one, never a truncated one
+     * @throws IOException if the file could not be written, in which case the old file is left as it was
+     */
+    private void writeSnapshot() throws IOException {
+        Path target = Paths.get(userFile).toAbsolutePath();
+        Path dir = target.getParent();
+        Path temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+                writeUsers(out);
+                out.flush();
+                channel.force(true);
+            }
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * moves a file over another in one step where the file system allows it, then forces the directory,
+     * since the move itself is only on disk once the directory is; not every system can force a directory
+     * @param source - the file to move
+     * @param target - where to move it, replacing any file there
+     * @throws IOException if the file could not be moved
+     */
+    static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (FileChannel directory = FileChannel.open(target.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // the moved file is complete either way
+        }
+    }
+
+    /**
+     * writes every user as a json array, in the same layout json-simple gives users.json
+     * @param out - where to write the array
+     * @throws IOException if writing fails
+     */
+    private void writeUsers(Writer out) throws IOException {
+        StringBuilder user = new StringBuilder(96);
+        out.write('[');
+        boolean first = true;
+        for (String username : order) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            user.setLength(0);
+            user.append('{');
+            writeUser(user, username, users.get(username));
+            out.append(user);
+        }
+        out.write(']');
+    }
+
+    /**
+     * writes the fields of a user's json object, after its opening brace, up to its closing brace
+     * @param out - where to write the fields
+     * @param username - of the user
+     * @param stats - of the user
+     */
+    private static void writeUser(StringBuilder out, String username, UserStats stats) {
+        out.append("\"level\":").append(stats.getLevel())
+                .append(",\"totalPoints\":").append(stats.getTotalPoints())
+                .append(",\"snakeSize\":").append(stats.getSnakeSize())
+                .append(",\"username\":\"").append(JSONValue.escape(username)).append("\"}");
+    }
+
+    /**
+     * writes the dirty users to the journal and stops the background thread.
+     * the repository still serves reads and writes afterwards, but only flush() writes the journal.
+     * an interrupt while waiting for the background thread is kept for the caller and the close goes on
+     */
+    @Override
+    public void close() {
+        closed = true;
+        started.set(true);
+        OPEN.remove(Paths.get(userFile).toAbsolutePath().normalize().toString(), this);
+        Thread hook = shutdownHook;
+        if (hook != null && hook != Thread.currentThread()) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException e) {
+                // the JVM is already shutting down and runs the hook anyway
+            }
+        }
+        Thread thread = flusher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (writeLock) {
+            flush();
+            closeJournal();
+            fileLock.close();
+        }
+    }
+
+    /**
+     * records a written user, starting the background thread on the first write
+     * @param username - of the written user
+     */
+    private void markDirty(String username) {
+        dirty.add(username);
+        if (!started.get() && started.compareAndSet(false, true)) {
+            startFlusher();
+        }
+    }
+
+    private void startFlusher() {
+        Thread thread = new Thread(this::writeBehind, "user-repository");
+        thread.setDaemon(true);
+        flusher = thread;
+        thread.start();
+        Thread hook = new Thread(this::close, "user-repository-shutdown");
+        shutdownHook = hook;
+        Runtime.getRuntime().addShutdownHook(hook);
+    }
+
+    /**
+     * the background thread: flushes the dirty users every FLUSH_INTERVAL_MILLIS, or sooner when asked,
+     * and compacts the journal once it holds more records than there are users, until closed
+     */
+    private void writeBehind() {
+        while (!closed) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MILLIS));
+            if (flush() && getJournalRecords() >= Math.max(COMPACT_MIN_RECORDS, users.size())) {
+                compact();
+            }
+        }
+    }
+
+    private static UserStats copy(UserStats stats) {
+        return new UserStats(stats.getLevel(), stats.getSnakeSize(), stats.getTotalPoints());
+    }
+}
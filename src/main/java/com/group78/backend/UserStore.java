@@ -0,0 +1,76 @@
+package com.group78.backend;
+
+import java.util.List;
+
+/**
+ * Storage of the users' game stats, behind DatabaseReader.
+ * UserRepository keeps a users json file in memory; MappedUserStore reads and updates a binary file in place.
+ */
+public interface UserStore extends AutoCloseable {
+
+    /**
+     * returns the store shared by every reader of a users file: a MappedUserStore for files ending in
+     * MappedUserStore.EXTENSION, a UserRepository for json files
+     * @param userFile - path of the users file
+     * @return the file's store
+     */
+    static UserStore forFile(String userFile) {
+        if (userFile.endsWith(MappedUserStore.EXTENSION)) {
+            return MappedUserStore.forFile(userFile);
+        }
+        return UserRepository.forFile(userFile);
+    }
+
+    /**
+     * method fetches a user token
+     * @param username - user's username
+     * @return the user's token, with a copy of their stats, or null if there is no such user
+     */
+    GameToken fetchToken(String username);
+
+    /**
+     * method checks if user exists or not
+     * @param username - of user to be checked
+     * @return true if user exists, false otherwise
+     */
+    boolean isUser(String username);
+
+    /**
+     * creates a user at level 1, unless they already exist
+     * @param username - of the new user
+     * @return true if the user was created, false if they already exist
+     */
+    boolean createUser(String username);
+
+    /**
+     * saves a user's stats, creating the user if needed
+     * @param token - user game token
+     */
+    void save(GameToken token);
+
+    /**
+     * method fetches all users in file order (dashboard)
+     * @return List of GameToken objects, with copies of their stats
+     */
+    List<GameToken> fetchAll();
+
+    /**
+     * returns the users with the most total points, from an index kept up to date by every save
+     * @param k - how many users
+     * @return up to k users, best first, ties by username, with copies of their stats
+     */
+    List<GameToken> top(int k);
+
+    /**
+     * writes every saved user to disk now
+     * @return true if every saved user is on disk, false if writing failed
+     */
+    boolean flush();
+
+    /**
+     * writes every saved user to disk and releases the store's file. an interrupt while waiting for a
+     * background writer does not stop the close; the thread's interrupt flag is set again afterwards
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,52 @@
+package com.group78.backend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * one-shot converter of a users json file, with its journal, into a binary users file for MappedUserStore.
+ * usage: UserStoreConverter src/main/users.json src/main/users.bin
+ */
+public class UserStoreConverter {
+
+    /**
+     * converts the users json file named by the first argument into the binary file named by the second
+     * @param args - the json file and the binary file
+     * @throws IOException if the binary file could not be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: UserStoreConverter <users.json> <users" + MappedUserStore.EXTENSION + ">");
+            System.exit(2);
+        }
+        int converted = convert(args[0], args[1]);
+        System.out.println("converted " + converted + " users into " + args[1]);
+    }
+
+    /**
+     * writes every user of a users json file, in file order, into a new binary users file
+     * @param jsonFile - path of the users json file
+     * @param binaryFile - path of the binary users file, which must not exist yet
+     * @return the number of users converted
+     * @throws IOException if the binary file exists already or could not be written
+     * @throws IllegalArgumentException if a username is longer than MappedUserStore.MAX_NAME_BYTES
+     */
+    public static int convert(String jsonFile, String binaryFile) throws IOException {
+        Path target = Paths.get(binaryFile);
+        if (Files.exists(target)) {
+            throw new IOException(binaryFile + " exists already");
+        }
+        UserRepository source = new UserRepository(jsonFile);
+        MappedUserStore store = new MappedUserStore(binaryFile);
+        int converted = 0;
+        for (GameToken token : source.fetchAll()) {
+            store.save(token);
+            converted++;
+        }
+        store.close();
+        source.close();
+        return converted;
+    }
+}
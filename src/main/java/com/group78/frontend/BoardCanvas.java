@@ -0,0 +1,135 @@
+package com.group78.frontend;
+
+import com.group78.gamelogic.Board;
+import com.group78.gamelogic.BoardRenderer;
+import com.group78.gamelogic.GameLoop;
+import com.group78.gamelogic.TileType;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * A single component that paints the whole game board, replacing the grid of one JLabel per tile.
+ * Tiles are filled into a back-buffer image as they change, and paintComponent() only copies that
+ * image to the screen, so the painting cost does not grow with the number of tiles.
+ */
+public class BoardCanvas extends JComponent implements BoardRenderer {
+
+    /** The preferred width and height of the canvas on screen, in pixels. */
+    private static final int PREFERRED_SIZE = 700;
+
+    /** The width of the board in tiles. */
+    private final int boardWidth;
+
+    /** The height of the board in tiles. */
+    private final int boardHeight;
+
+    /** The size of one tile in the back buffer, in pixels. */
+    private final int cellSize;
+
+    /** The back buffer holding the drawn board. Also the lock between the game loop and the EDT. */
+    private final BufferedImage buffer;
+
+    /** Whether the next drawBoard() fills every tile instead of only the changed ones. */
+    private boolean fullRedraw;
+
+    /**
+     * Constructs a canvas for the given board and draws its current state.
+     *
+     * @param board The game board to display.
+     */
+    public BoardCanvas(Board board) {
+        this.boardWidth = board.getWidth();
+        this.boardHeight = board.getHeight();
+        this.cellSize = Math.max(1, PREFERRED_SIZE / Math.max(boardWidth, boardHeight));
+        this.buffer = new BufferedImage(boardWidth * cellSize, boardHeight * cellSize, BufferedImage.TYPE_INT_RGB);
+        this.fullRedraw = true;
+
+        setOpaque(true);
+        setPreferredSize(new Dimension(PREFERRED_SIZE, PREFERRED_SIZE));
+        board.setChangeTracking(true);
+        drawBoard(board);
+    }
+
+    /**
+     * Fills the changed tiles of the board into the back buffer, or every tile on the first call,
+     * then asks Swing to repaint. Safe to call from the game loop thread.
+     *
+     * @param board The game board to draw.
+     */
+    @Override
+    public void drawBoard(Board board) {
+        synchronized (buffer) {
+            Graphics2D g = buffer.createGraphics();
+            try {
+                if (fullRedraw) {
+                    fullRedraw = false;
+                    for (int j = 0; j < boardHeight; j++) {
+                        for (int i = 0; i < boardWidth; i++) {
+                            fillTile(g, board, i, j);
+                        }
+                    }
+                } else {
+                    for (int n = 0; n < board.getDirtyCount(); n++) {
+                        fillTile(g, board, board.getDirtyX(n), board.getDirtyY(n));
+                    }
+                }
+            } finally {
+                g.dispose();
+            }
+        }
+        board.clearDirty();
+        repaint();
+    }
+
+    /**
+     * Makes the next drawBoard() call fill every tile.
+     */
+    public void redrawAll() {
+        synchronized (buffer) {
+            fullRedraw = true;
+        }
+    }
+
+    /**
+     * Fills a single tile into the back buffer. Row 0 of the board is drawn at the bottom.
+     *
+     * @param g Graphics of the back buffer.
+     * @param board The game board.
+     * @param i The x-coordinate of the tile.
+     * @param j The y-coordinate of the tile.
+     */
+    private void fillTile(Graphics2D g, Board board, int i, int j) {
+        int x = i * cellSize;
+        int y = (boardHeight - 1 - j) * cellSize;
+        TileType type = board.getType(i, j);
+        switch (type) {
+            case FOOD -> g.setColor(GameLoop.FOOD_COLOR);
+            case EMPTY -> g.setColor((i + j) % 2 == 0 ? GameLoop.LIGHT_GRASS_COLOR : GameLoop.DARK_GRASS_COLOR);
+            case U_SNAKE -> g.setColor(Color.YELLOW);
+            case E_SNAKE -> g.setColor(Color.RED);
+            case OBSTACLE -> g.setColor(Color.PINK);
+            default -> g.setColor(Color.GRAY);
+        }
+        g.fillRect(x, y, cellSize, cellSize);
+
+        // snake outline, as the labels had; skipped once tiles are too small to show it
+        if ((type == TileType.U_SNAKE || type == TileType.E_SNAKE) && cellSize >= 4) {
+            g.setColor(Color.CYAN);
+            g.drawRect(x, y, cellSize - 1, cellSize - 1);
+        }
+    }
+
+    /**
+     * Copies the back buffer onto the screen, scaled to the size of the component.
+     *
+     * @param g The graphics context to paint on.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        synchronized (buffer) {
+            g.drawImage(buffer, 0, 0, getWidth(), getHeight(), null);
+        }
+    }
+}
@@ -34,8 +34,8 @@ public class DeveloperGameScreen extends JFrame implements ActionListener {
     /** The main game loop that drives game updates and rendering. */
     public GameLoop gameLoop;
 
-    /** A two-dimensional array of JLabels representing the game board's grid. */
-    public JLabel[][] gameBoardLabels;
+    /** The component painting the game board. */
+    public BoardCanvas boardCanvas;
 
     /** A panel that stacks different components vertically for the gameplay screen. */
     private JPanel gamePlayStackedPanel;
@@ -62,10 +62,10 @@ public class DeveloperGameScreen extends JFrame implements ActionListener {
         this.WIDTH = this.board.getWidth();
         this.HEIGHT = this.board.getHeight();
 
-        this.gameBoardLabels = new JLabel[HEIGHT][WIDTH];
+        this.boardCanvas = new BoardCanvas(this.board);
         this.commonMethods = new CommonMethods();
         this.gamePlayScreen();
-        this.gameLoop = new GameLoop(this.gameBoardLabels, this.board, this.commonMethods);
+        this.gameLoop = new GameLoop(this.boardCanvas, this.board, this.commonMethods);
     }
 
     /**
@@ -75,7 +75,7 @@ public class DeveloperGameScreen extends JFrame implements ActionListener {
     public void gamePlayScreen() {
         (new CommonMethods()).configureFrameSettings(this, "Math Mamba", "#EDFFFA");
         JPanel gameBoardPanel = (new CommonMethods()).createTransparentPanel();
-        gameBoardPanel.setLayout(new GridLayout(HEIGHT, WIDTH));
+        gameBoardPanel.setLayout(new BorderLayout());
         gameBoardPanel.setFocusable(true);
         gameBoardPanel.requestFocusInWindow();
         gameBoardPanel.addKeyListener(new KeyAdapter() {
@@ -97,14 +97,7 @@ public class DeveloperGameScreen extends JFrame implements ActionListener {
             }
         });
 
-        for (int col = WIDTH - 1; col >= 0; --col) {
-            for (int row = 0; row < HEIGHT; ++row) {
-                this.gameBoardLabels[row][col] = new JLabel();
-                this.gameBoardLabels[row][col].setOpaque(true);
-                this.gameBoardLabels[row][col].setBackground(Color.PINK);
-                gameBoardPanel.add(this.gameBoardLabels[row][col]);
-            }
-        }
+        gameBoardPanel.add(this.boardCanvas, BorderLayout.CENTER);
 
         gameBoardPanel.setPreferredSize(new Dimension(700, 700));
         gameBoardPanel.setMaximumSize(new Dimension(700, 700));
@@ -147,7 +140,7 @@ public class DeveloperGameScreen extends JFrame implements ActionListener {
         this.gamePlayScreen();
         (new CommonMethods()).createDialogBox(this, (String) null, "Level" + (this.level+1), "Are You Ready?", new Object[]{"START"});
         SwingUtilities.invokeLater(() -> {
-            (new Thread(this.gameLoop)).start();
+            Thread.ofVirtual().name("game-loop").start(this.gameLoop);
         });
     }
 
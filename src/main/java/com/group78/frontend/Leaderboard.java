@@ -187,22 +187,14 @@ public class Leaderboard extends JFrame implements ActionListener {
     }
 
     /**
-     * Fetches and sorts all players by their total points in descending order, then returns the top three players.
+     * Fetches the top three players by total points in descending order, with ties ordered by username,
+     * from the leaderboard index the database keeps up to date on every save.
      * If there are fewer than three players, returns all available players.
      *
      * @return A list of GameToken objects for the top three (or fewer) players.
      */
     private List<GameToken> listPlayers(){
-        List<GameToken> allPlayers = databaseReader.fetchAll();
-        Comparator<GameToken> comparing = Comparator.comparingInt(i -> i.getStats().getTotalPoints());
-        // sorts the scores
-        allPlayers.sort(comparing);
-        // list was in ascending, so need it to reverse to do descending
-        Collections.reverse(allPlayers);
-        // taking the top three
-        List<GameToken> allThree = allPlayers.subList(0,Math.min(3,allPlayers.size()));
-
-        return allThree;
+        return databaseReader.fetchTop(3);
     }
 
     /**
@@ -3,8 +3,11 @@ package com.group78.frontend;
 import com.group78.backend.*;
 import com.group78.gamelogic.Board;
 import com.group78.gamelogic.Direction;
+import com.group78.gamelogic.EventLog;
 import com.group78.gamelogic.GameCompletionListener;
 import com.group78.gamelogic.GameLoop;
+import com.group78.gamelogic.LogLevel;
+import com.group78.gamelogic.Replay;
 
 import javax.swing.*;
 import java.awt.*;
@@ -12,6 +15,9 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * This class represents the main game window for the snake game.
@@ -20,11 +26,12 @@ import java.awt.event.KeyEvent;
  */
 public class SnakeGamePlay extends JFrame implements ActionListener, GameCompletionListener {
 
+    private static final String REPLAY_FILE = "src/main/last_game.replay"; // Replay of the last finished game
     public static int WIDTH; // Width of the game board
     public static int HEIGHT; // Height of the game board
     public Board board; // The game board
     public GameLoop gameLoop; // The game loop responsible for updating the game state
-    public JLabel[][] gameBoardLabels; // 2D array of labels representing the game board on the UI
+    public BoardCanvas boardCanvas; // Component painting the game board on the UI
     public boolean userWon; // Flag indicating if the user won the game
     public boolean userLost; // Flag indicating if the user lost the game
     private int level; // Current level of the game
@@ -56,7 +63,7 @@ public class SnakeGamePlay extends JFrame implements ActionListener, GameComplet
         } catch (Exception e) {
             System.out.println(e.toString());
         }
-        gameBoardLabels = new JLabel[HEIGHT][WIDTH];
+        boardCanvas = new BoardCanvas(board);
 
         commonMethods = new CommonMethods(user);
 
@@ -65,7 +72,7 @@ public class SnakeGamePlay extends JFrame implements ActionListener, GameComplet
         System.out.println(commonMethods.getSizeLabel() == null);
         System.out.println(commonMethods.getPointsLabel() == null);
 
-        gameLoop = new GameLoop(gameBoardLabels, board, commonMethods, this.user);
+        gameLoop = new GameLoop(boardCanvas, board, commonMethods, this.user);
     }
 
     /**
@@ -76,7 +83,7 @@ public class SnakeGamePlay extends JFrame implements ActionListener, GameComplet
         this.commonMethods.configureFrameSettings(this, "Math Mamba", "#EDFFFA"); // Frame settings
 
         JPanel gameBoardPanel = new CommonMethods(user).createTransparentPanel();
-        gameBoardPanel.setLayout(new GridLayout(HEIGHT, WIDTH));
+        gameBoardPanel.setLayout(new BorderLayout());
 
         gameBoardPanel.setFocusable(true);
         gameBoardPanel.requestFocusInWindow();
@@ -104,27 +111,7 @@ public class SnakeGamePlay extends JFrame implements ActionListener, GameComplet
             }
         });
 
-        for(int col = WIDTH-1; col >= 0; col--) {
-            for(int row = 0; row < HEIGHT; row++) {
-                // gameBoardLabels[row][col] = new JLabel("[" + (row) + "," + (col) + "]");
-                gameBoardLabels[row][col] = new JLabel();
-                //gameBoardLabels[row][col].setBorder(BorderFactory.createLineBorder(Color.BLACK));
-                gameBoardLabels[row][col].setOpaque(true);
-                if(row % 2 == 0) {
-                    if (col % 2 == 0)
-                        gameBoardLabels[row][col].setBackground(Color.decode("#9dedb2"));
-                    else
-                        gameBoardLabels[row][col].setBackground(Color.decode("#61e885"));
-                }
-                else {
-                    if (col % 2 == 0)
-                        gameBoardLabels[row][col].setBackground(Color.decode("#61e885"));
-                    else
-                        gameBoardLabels[row][col].setBackground(Color.decode("#9dedb2"));
-                }
-                gameBoardPanel.add(gameBoardLabels[row][col]);
-            }
-        }
+        gameBoardPanel.add(boardCanvas, BorderLayout.CENTER);
 
         gameBoardPanel.setPreferredSize(new Dimension(700, 700));
         gameBoardPanel.setMaximumSize(new Dimension(700, 700));
@@ -155,10 +142,11 @@ public class SnakeGamePlay extends JFrame implements ActionListener, GameComplet
         gamePlayScreen();
 
         gameLoop.setGameCompletionListener(this);
+        gameLoop.startRecording();
 
         new CommonMethods(user).createDialogBox(this, null, "Level "+ user.getStats().getLevel(), "Are You Ready?", new Object[]{"START"});
         SwingUtilities.invokeLater(() -> {
-            new Thread(gameLoop).start();
+            Thread.ofVirtual().name("game-loop").start(gameLoop);
         });
     }
 
@@ -203,6 +191,7 @@ public class SnakeGamePlay extends JFrame implements ActionListener, GameComplet
      */
     @Override
     public void onGameComplete(boolean isUserDead, boolean isEnemiesDead) {
+        saveReplay();
         SwingUtilities.invokeLater(() -> {
             if (isUserDead) {
 
@@ -219,4 +208,19 @@ public class SnakeGamePlay extends JFrame implements ActionListener, GameComplet
             }
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves the replay of the finished game over the previous one, so the last game can be played back.
+     */
+    private void saveReplay() {
+        Replay replay = gameLoop.getEngine().getRecording();
+        if (replay == null) {
+            return;
+        }
+        try (OutputStream out = new FileOutputStream(REPLAY_FILE)) {
+            replay.write(out);
+        } catch (IOException e) {
+            EventLog.game().log(LogLevel.WARN, "SnakeGamePlay: could not save the replay", e);
+        }
+    }
+}
@@ -2,12 +2,19 @@ package com.group78.gamelogic;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 /**
  * Represents the game board for the math snake game.
  * This class handles the logic for the playing area including snake movement,
  * food spawning, obstacle creation, and board size based on difficulty level.
+ * <p>
+ * Boards of up to 1024x1024 tiles keep their cells in flat arrays. Larger custom boards, up to 4096x4096
+ * for stress and event modes, keep them in ChunkedCells, 64x64 chunks allocated on first write, so a mostly
+ * empty board only uses memory for the area that has been written.
  */
 public class Board {
     /** The width of the board in tiles. */
@@ -16,12 +23,121 @@ public class Board {
     /** The height of the board in tiles. */
     private int height;
 
-    /** A two-dimensional array representing the map of the board where the game is played. */
-    private Tile[][] map;
+    /**
+     * The map of the board where the game is played, stored as one byte per tile holding the
+     * ordinal of its TileType. Tiles are indexed by {@code y * width + x}. Null on chunked boards.
+     */
+    private byte[] cells;
+
+    /** The cell storage of boards larger than DENSE_MAX_CELLS, null on dense boards. */
+    private ChunkedCells chunks;
+
+    /** Cached TileType values, used to decode the bytes stored in cells. */
+    private static final TileType[] TILE_TYPES = TileType.values();
+
+    /** Stored byte value of an EMPTY tile. */
+    private static final byte EMPTY = (byte) TileType.EMPTY.ordinal();
+
+    /** Stored byte value of a FOOD tile. */
+    private static final byte FOOD = (byte) TileType.FOOD.ordinal();
+
+    /** Stored byte value of an OBSTACLE tile. */
+    private static final byte OBSTACLE = (byte) TileType.OBSTACLE.ordinal();
+
+    /** The most cells a board keeps in flat arrays; larger boards are chunked. */
+    private static final int DENSE_MAX_CELLS = 1024 * 1024;
+
+    /** How many random cells a chunked board tries when picking a free cell before scanning for one. */
+    private static final int FREE_PICK_ATTEMPTS = 64;
+
+    /**
+     * How many ticks a chunked board keeps the food distance field chunks it has allocated before dropping
+     * them all, so the field only holds memory for where food has been recently.
+     */
+    private static final int FIELD_RECLAIM_TICKS = 1024;
+
+    /** Enemy counts from which deciding their moves in parallel outweighs handing the work to other threads. */
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+
+    /** How many moves from food the food distance field reaches at most. */
+    private static final int FOOD_FIELD_RADIUS = 32;
+
+    /**
+     * How many cells the food distance field search reaches per tick before it stops at the end of the
+     * distance it is on, so the field costs about the same every tick however large and full of food the board is.
+     */
+    private static final int FOOD_FIELD_BUDGET = 1 << 16;
+
+    /** How many random free cells spawnObstacle() tries before falling back to a scan of the free cells. */
+    private static final int OBSTACLE_PICK_ATTEMPTS = 32;
+
+    /**
+     * Indices of every EMPTY cell, densely packed in the first freeCount slots. Cells are removed by
+     * swapping the last slot into their place, so adding, removing and picking a random cell are O(1).
+     * Only kept on dense boards: a chunked board is mostly empty, so random cells are picked by trial instead.
+     */
+    private int[] freeCells;
+
+    /**
+     * For each EMPTY cell its slot in freeCells, for each FOOD cell its slot in foodCells, -1 for any other cell.
+     * Chunked boards keep the FOOD slots in their chunks.
+     */
+    private int[] cellSlots;
+
+    /** The number of EMPTY cells on the board. */
+    private int freeCount;
+
+    /** Indices of every FOOD cell, densely packed in the first foodCount slots, kept like freeCells. */
+    private int[] foodCells;
+
+    /** The number of FOOD cells on the board, updated whenever a cell changes. */
+    private int foodCount;
+
+    /**
+     * The distance field towards food, recomputed at the start of every tick with enemies. For each cell the
+     * generation of the tick it was reached in, shifted left by 8, and its number of moves from the nearest food.
+     * Cells stamped with an older generation were not reached, so the array never has to be cleared.
+     * Only allocated on dense boards with enemy snakes; chunked boards keep the field in their chunks.
+     */
+    private int[] foodField;
+
+    /** The generation of the current food distance field. */
+    private int fieldGeneration;
+
+    /**
+     * The breadth-first search queue of the food distance field, reused every tick. Each cell enters it at most once.
+     * Only allocated on boards with enemy snakes, growing as needed on chunked boards.
+     */
+    private int[] fieldQueue;
+
+    /** Whether changed cells are recorded, switched on by the renderers that draw from the changed-cell list. */
+    private boolean trackingChanges;
+
+    /** Cells changed since the last clearDirty(), in the order they first changed, or null until tracking starts. */
+    private int[] dirtyCells;
+
+    /** The number of cells in dirtyCells. */
+    private int dirtyCount;
+
+    /** One bit per cell, set while the cell is in dirtyCells, or null until tracking starts on a dense board. */
+    private long[] dirtyBits;
+
+    /**
+     * Cells holding the head of a live snake, one bit per cell, kept up to date by the snakes as they move.
+     * Two live heads never share a cell, since a snake moving onto a head dies or ends the game,
+     * so a single bit per cell is enough.
+     */
+    private long[] headBits;
 
     /** An array holding all enemy snakes present on the board. */
     private EnemySnake[] enemySnakes;
 
+    /** The move each enemy snake decided on this tick, by spawn order. */
+    private int[] enemyMoves;
+
+    /** The number of enemy snakes from which their decisions are made in parallel on the fork-join pool. */
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
     /** The player's snake controlled by the user. */
     private UserSnake userSnake;
 
@@ -52,24 +168,43 @@ public class Board {
     /** The current level of the game, which affects the difficulty and board parameters. */
     private int level;
 
+    /** The seed the board's randomness was created from. */
+    private long seed;
+
+    /** The source of every random choice on the board. Each enemy snake gets its own split of it. */
+    private SplittableRandom random;
+
+    /** Whether the board was built from explicit dimensions rather than from a level. */
+    private boolean customLayout;
+
     /**
      * Constructs a new Board object for a specified level.
      * It sets up the game map with initial parameters, spawns the user snake, enemy snakes, obstacles, and food.
+     * The board's randomness is seeded from a fresh, unpredictable seed.
      *
      * @param level The level of difficulty for the board.
      * @throws Exception If there is an error setting up the board.
      */
     public Board(int level) throws Exception {
+        this(level, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructs a new Board object for a specified level with seeded randomness.
+     * Two boards built with the same level and seed, and given the same moves, play out identically.
+     *
+     * @param level The level of difficulty for the board.
+     * @param seed The seed of every random choice made on this board, including the enemy snakes' moves.
+     * @throws Exception If there is an error setting up the board.
+     */
+    public Board(int level, long seed) throws Exception {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
         this.level = level-1;
         setLevelParameters();
-        this.map = new Tile[this.width][this.height];
+        this.initCells();
         this.snakeStartingX = (width - 1) / 2;
         this.isUserDead = false;
-        for (int i = 0; i < width; i++) {
-            for (int j = 0; j < height; j++) {
-                this.map[i][j] = new Tile(TileType.EMPTY, i, j);
-            }
-        }
 
         this.spawnUserSnake();
         spawnEnemySnake(numbEnemySnakes);
@@ -81,20 +216,48 @@ public class Board {
             this.spawnFood();
         }
     }
+
+    /**
+     * Constructs a custom board, used by tests and simulations.
+     * The board's randomness is seeded from a fresh, unpredictable seed.
+     *
+     * @param width The width of the board in tiles.
+     * @param height The height of the board in tiles.
+     * @param numFoods The number of food items to spawn.
+     * @param numbObstacles The number of obstacles to spawn.
+     * @param numbEnemySnakes The number of enemy snakes to spawn.
+     * @param snakeStartingX The x-coordinate of the user snake.
+     * @throws Exception If there is an error setting up the board.
+     */
     public Board(int width, int height,int numFoods, int numbObstacles,int numbEnemySnakes,int snakeStartingX) throws Exception {
+        this(width, height, numFoods, numbObstacles, numbEnemySnakes, snakeStartingX, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructs a custom board with seeded randomness.
+     *
+     * @param width The width of the board in tiles.
+     * @param height The height of the board in tiles.
+     * @param numFoods The number of food items to spawn.
+     * @param numbObstacles The number of obstacles to spawn.
+     * @param numbEnemySnakes The number of enemy snakes to spawn.
+     * @param snakeStartingX The x-coordinate of the user snake.
+     * @param seed The seed of every random choice made on this board, including the enemy snakes' moves.
+     * @throws Exception If there is an error setting up the board.
+     */
+    public Board(int width, int height,int numFoods, int numbObstacles,int numbEnemySnakes,int snakeStartingX, long seed) throws Exception {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
         this.level = 100;
+        this.customLayout = true;
         this.height=height;
         this.width=width;
         this.numFoods=numFoods;
         this.numbObstacles=numbObstacles;
+        this.numbEnemySnakes=numbEnemySnakes;
         this.snakeStartingX=snakeStartingX;
-        this.map = new Tile[this.width][this.height];
+        this.initCells();
         this.isUserDead = false;
-        for (int i = 0; i < width; i++) {
-            for (int j = 0; j < height; j++) {
-                this.map[i][j] = new Tile(TileType.EMPTY, i, j);
-            }
-        }
         this.spawnUserSnake();
         spawnEnemySnake(numbEnemySnakes);
         for (int i = 0; i < numbObstacles; i++) {
@@ -156,15 +319,34 @@ public class Board {
     }
 
     public String getBitboard() throws Exception {
-        String board_str = "";
+        StringBuilder board_str = new StringBuilder();
         for (int j = this.height - 1; j > -1; j--) {
             for (int i = 0; i < this.width; i++) {
-                board_str += this.map[i][j].charRep() + "  ";
+                board_str.append(getTile(i, j).charRep()).append("  ");
             }
-            board_str += "\n";
+            board_str.append("\n");
         }
 
-        return board_str;
+        return board_str.toString();
+    }
+
+    /**
+     * Builds a bitboard of every tile of the given type. Bit {@code y * width + x} of the returned
+     * array (word {@code index >> 6}, bit {@code index & 63}) is set when the tile at (x, y) has that type.
+     *
+     * @param type The tile type to collect.
+     * @return A bitboard of width * height bits.
+     */
+    public long[] getBitboard(TileType type) {
+        int size = width * height;
+        long[] bits = new long[(size + 63) >>> 6];
+        byte value = (byte) type.ordinal();
+        for (int index = 0; index < size; index++) {
+            if (cellAt(index) == value) {
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+        return bits;
     }
 
     /**
@@ -174,18 +356,97 @@ public class Board {
      * @throws Exception If there is an error spawning the obstacle.
      */
     private void spawnObstacle() throws Exception {
-        ArrayList<Tile> empties = new ArrayList<Tile>();
-        for (int i = 0; i < width - 1; i++) {
-            for (int j = 0; j < height - 1; j++) {
-                if (map[i][j].getType() == TileType.EMPTY) {
-                    if(j >= this.DEFAULT_SNAKE_SIZE && j<= DEFAULT_SNAKE_SIZE+1){
-                        continue;
-                    }
-                    empties.add(map[i][j]);
-                }
+        // random free cells, retried when they land in the snake's spawn rows
+        for (int attempt = 0; attempt < OBSTACLE_PICK_ATTEMPTS && freeCount > 0; attempt++) {
+            int cell = pickFreeCell();
+            if (isObstacleSpot(cell)) {
+                setCell(cell, OBSTACLE);
+                return;
+            }
+        }
+
+        // mostly full board: pick uniformly among the allowed free cells
+        int candidates = candidateCount();
+        int allowed = 0;
+        for (int n = 0; n < candidates; n++) {
+            int cell = candidateCell(n);
+            if (cellAt(cell) == EMPTY && isObstacleSpot(cell)) {
+                allowed++;
+            }
+        }
+        if (allowed == 0) {
+            throw new Exception("Board: no empty tile left for an OBSTACLE");
+        }
+        int pick = random.nextInt(allowed);
+        for (int n = 0; n < candidates; n++) {
+            int cell = candidateCell(n);
+            if (cellAt(cell) == EMPTY && isObstacleSpot(cell) && pick-- == 0) {
+                setCell(cell, OBSTACLE);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Picks a random EMPTY cell, with every EMPTY cell equally likely. Dense boards pick from the free-cell index;
+     * chunked boards try random cells, which on a mostly empty board takes one or two tries, and scan the board
+     * for the cell to pick once too many tries have failed.
+     *
+     * @return The index of the cell. There must be at least one EMPTY cell.
+     */
+    private int pickFreeCell() {
+        if (chunks == null) {
+            return freeCells[random.nextInt(freeCount)];
+        }
+        int size = width * height;
+        for (int attempt = 0; attempt < FREE_PICK_ATTEMPTS; attempt++) {
+            int cell = random.nextInt(size);
+            if (chunks.get(cell) == EMPTY) {
+                return cell;
+            }
+        }
+        int pick = random.nextInt(freeCount);
+        for (int cell = 0; ; cell++) {
+            if (chunks.get(cell) == EMPTY && pick-- == 0) {
+                return cell;
             }
         }
-        empties.get((int) (Math.random() * empties.size())).setObstacle();
+    }
+
+    /**
+     * Returns how many cells a scan for free cells goes through: the free-cell index on dense boards,
+     * every cell on chunked boards.
+     *
+     * @return The number of cells to scan, read with candidateCell().
+     */
+    private int candidateCount() {
+        return chunks == null ? freeCount : width * height;
+    }
+
+    /**
+     * Returns a cell of a scan for free cells. Only the EMPTY ones are free on chunked boards.
+     *
+     * @param n The position in the scan, from 0 to candidateCount() - 1.
+     * @return The index of the cell.
+     */
+    private int candidateCell(int n) {
+        return chunks == null ? freeCells[n] : n;
+    }
+
+    /**
+     * Checks whether an obstacle may be placed on a free cell. Obstacles stay off the last column and row,
+     * and off the rows just above the starting snakes.
+     *
+     * @param cell The index of the cell.
+     * @return true if an obstacle may be placed there.
+     */
+    private boolean isObstacleSpot(int cell) {
+        int i = cell % width;
+        int j = cell / width;
+        if (i >= width - 1 || j >= height - 1) {
+            return false;
+        }
+        return j < this.DEFAULT_SNAKE_SIZE || j > DEFAULT_SNAKE_SIZE + 1;
     }
 
 
@@ -198,18 +459,38 @@ public class Board {
      */
     private void spawnEnemySnake(int number) throws Exception {
         this.enemySnakes = new EnemySnake[number];
+        this.enemyMoves = new int[number];
+        if (number > 0) {
+            int size = width * height;
+            if (chunks == null) {
+                this.foodField = new int[size];
+                this.fieldQueue = new int[size];
+            } else {
+                this.fieldQueue = new int[FOOD_FIELD_BUDGET];
+            }
+        }
 
         for (int n = 0; n < number; n++) {
             LinkedList<Tile> snakeTiles = new LinkedList<>();
             for (int i = this.DEFAULT_SNAKE_SIZE - 1; i > -1; i--) {
-                Tile currTile = this.map[(width - 1) * (n % 2) + 2 * (n / 2) * ((int) Math.pow(-1, n))][i];
+                Tile currTile = getTile((width - 1) * (n % 2) + 2 * (n / 2) * ((int) Math.pow(-1, n)), i);
                 currTile.setEnemySnake();
                 snakeTiles.add(currTile);
             }
-            enemySnakes[n] = new EnemySnake(this, snakeTiles, Direction.UP, 10*level);
+            enemySnakes[n] = new EnemySnake(this, snakeTiles, Direction.UP, 10*level, random.split());
         }
     }
 
+    /**
+     * Retrieves one of the enemy snakes.
+     *
+     * @param n The index of the enemy snake, in spawn order.
+     * @return The enemy snake.
+     */
+    EnemySnake getEnemySnake(int n) {
+        return enemySnakes[n];
+    }
+
     /**
      * Checks if all enemy snakes on the board are dead.
      *
@@ -242,20 +523,13 @@ public class Board {
     /**
      * Spawns a food item in a random empty tile on the board.
      * Ensures that the food is not placed on a tile already occupied by the snake or an obstacle.
+     * The tile is picked from the free-cell index, or by trial on chunked boards, so this takes constant time.
      *
      * @throws Exception If there is an error in finding an empty tile or spawning food.
      */
-    private void spawnFood() throws Exception {
-        ArrayList<Tile> empties = new ArrayList<Tile>();
-        for (int i = 0; i < width; i++) {
-            for (int j = 0; j < height; j++) {
-                if (map[i][j].getType() == TileType.EMPTY) {
-                    empties.add(map[i][j]);
-                }
-            }
-        }
-        if (!(empties.size()<=0)) {
-            empties.get((int) (Math.random() * empties.size())).setFood();
+    void spawnFood() throws Exception {
+        if (freeCount > 0) {
+            setCell(pickFreeCell(), FOOD);
         }
     }
 
@@ -269,7 +543,7 @@ public class Board {
     private void spawnUserSnake() throws Exception {
         LinkedList<Tile> snakeTiles = new LinkedList<>();
         for (int i = this.DEFAULT_SNAKE_SIZE - 1; i > -1; i--) {
-            Tile currTile = this.map[this.snakeStartingX][i];
+            Tile currTile = getTile(this.snakeStartingX, i);
             currTile.setUserSnake();
             snakeTiles.add(currTile);
         }
@@ -305,39 +579,53 @@ public class Board {
      */
     public boolean moveSnakes(Direction dir) {
         try {// returns false if out of bounds
+            if (enemySnakes.length > 0) {
+                updateFoodField();
+            }
+            // every enemy decides against the board as it was at the start of the tick, then the moves are
+            // applied in spawn order, so a tile two enemies head for goes to the one spawned first
+            if (enemySnakes.length >= parallelThreshold) {
+                IntStream.range(0, enemySnakes.length).parallel()
+                        .forEach(n -> enemyMoves[n] = enemySnakes[n].decide());
+            } else {
+                for (int n = 0; n < enemySnakes.length; n++) {
+                    enemyMoves[n] = enemySnakes[n].decide();
+                }
+            }
             for (int n = 0; n < enemySnakes.length; n++) {
-                enemySnakes[n].move();
+                enemySnakes[n].commit(enemyMoves[n]);
             }
             this.updateEnemySnakeDeathCount();
             return this.userSnake.move(dir);
         } catch (Exception e) {
-            System.out.println(e);
+            EventLog.game().log(LogLevel.WARN, "Board: tick ended the game", e);
             return false;
         }
     }
 
     /**
      * Updates the board by checking the number of food items.
-     * If there are fewer food items than required, spawns additional food until the required number is met.
+     * If there are fewer food items than required, spawns the missing food items in one batch.
+     * The food count is kept up to date as tiles change, so this costs nothing when no food is missing.
      *
      * @throws Exception If there is an error in spawning additional food.
      */
     public void updateFood() throws Exception {
-        int foodCounter = 0;
-        for (int i = 0; i < width - 1; i++) {
-            for (int j = 0; j < height - 1; j++) {
-                if (map[i][j].getType() == TileType.FOOD) {
-                    foodCounter++;
-                }
-            }
-        }
-
-        if (foodCounter < this.numFoods) {
+        int missing = this.numFoods - this.foodCount;
+        for (int n = 0; n < missing && freeCount > 0; n++) {
             spawnFood();
-            updateFood();
         }
     }
 
+    /**
+     * Retrieves the number of food items currently on the board.
+     *
+     * @return The number of FOOD tiles.
+     */
+    public int getFoodCount() {
+        return foodCount;
+    }
+
     /**
      * Retrieves the tile at the specified coordinates on the board.
      *
@@ -348,11 +636,496 @@ public class Board {
 
     public Tile getTile(int x, int y) {
         if (x >= 0 && x < width && y >= 0 && y < height) {
-            return map[x][y];
+            return new Tile(this, x, y);
         }
         return null;
     }
 
+    /**
+     * Retrieves the type of the tile at the specified coordinates without creating a Tile view.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The type of the tile at the specified location.
+     */
+    public TileType getType(int x, int y) {
+        return TILE_TYPES[cellAt(index(x, y))];
+    }
+
+    /**
+     * Stores a new type for the tile at the specified coordinates. Placement rules are enforced by
+     * the Tile setters, which are the only callers.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @param type The new type of the tile.
+     */
+    void setType(int x, int y, TileType type) {
+        setCell(index(x, y), (byte) type.ordinal());
+    }
+
+    /**
+     * Reads a cell from the board's storage, dense or chunked.
+     *
+     * @param index The index of the cell.
+     * @return The stored byte value of its TileType.
+     */
+    private byte cellAt(int index) {
+        return chunks == null ? cells[index] : chunks.get(index);
+    }
+
+    /**
+     * Writes a cell and keeps the free-cell index and the food list in step with it.
+     *
+     * @param index The index of the cell.
+     * @param value The stored byte value of the new TileType.
+     */
+    private void setCell(int index, byte value) {
+        byte old = cellAt(index);
+        if (old == value) {
+            return;
+        }
+        if (chunks == null) {
+            cells[index] = value;
+        } else {
+            chunks.set(index, value);
+        }
+        markDirty(index);
+        if (old == EMPTY) {
+            freeCount--;
+            if (chunks == null) {
+                // swap-remove from the free cells
+                int slot = cellSlots[index];
+                int last = freeCells[freeCount];
+                freeCells[slot] = last;
+                cellSlots[last] = slot;
+            }
+        } else if (old == FOOD) {
+            int slot = foodSlot(index);
+            int last = foodCells[--foodCount];
+            foodCells[slot] = last;
+            setFoodSlot(last, slot);
+        }
+        if (chunks == null) {
+            cellSlots[index] = -1;
+        }
+        if (value == EMPTY) {
+            if (chunks == null) {
+                freeCells[freeCount] = index;
+                cellSlots[index] = freeCount;
+            }
+            freeCount++;
+        } else if (value == FOOD) {
+            if (foodCount == foodCells.length) {
+                foodCells = Arrays.copyOf(foodCells, foodCount * 2);
+            }
+            foodCells[foodCount] = index;
+            setFoodSlot(index, foodCount++);
+        }
+    }
+
+    /**
+     * Reads the slot of a FOOD cell in foodCells.
+     *
+     * @param index The index of the cell.
+     * @return Its slot in foodCells.
+     */
+    private int foodSlot(int index) {
+        return chunks == null ? cellSlots[index] : chunks.slot(index);
+    }
+
+    /**
+     * Stores the slot of a FOOD cell in foodCells.
+     *
+     * @param index The index of the cell.
+     * @param slot Its slot in foodCells.
+     */
+    private void setFoodSlot(int index, int slot) {
+        if (chunks == null) {
+            cellSlots[index] = slot;
+        } else {
+            chunks.setSlot(index, slot);
+        }
+    }
+
+    /**
+     * Allocates an all EMPTY board. Dense boards start with every cell in the free-cell index,
+     * chunked boards with no chunk allocated.
+     */
+    private void initCells() {
+        int size = this.width * this.height;
+        this.foodCells = new int[16];
+        this.freeCount = size;
+        if (size > DENSE_MAX_CELLS) {
+            this.chunks = new ChunkedCells(width, height);
+            return;
+        }
+        this.cells = new byte[size];
+        this.freeCells = new int[size];
+        this.cellSlots = new int[size];
+        for (int index = 0; index < size; index++) {
+            freeCells[index] = index;
+            cellSlots[index] = index;
+        }
+        this.headBits = new long[(size + 63) >>> 6];
+    }
+
+    /**
+     * Recomputes the food distance field: a breadth-first search from every FOOD cell at once through EMPTY cells,
+     * up to FOOD_FIELD_RADIUS moves, or less once FOOD_FIELD_BUDGET cells are reached. Either way the field is
+     * exact up to the distance it stops at. Runs once per tick, however many snakes read it.
+     */
+    private void updateFoodField() {
+        if (++fieldGeneration == 1 << 23) {
+            // the generation would overflow its 23 bits, start over from a cleared field
+            if (chunks == null) {
+                Arrays.fill(foodField, 0);
+            } else {
+                chunks.clearField();
+            }
+            fieldGeneration = 1;
+        } else if (chunks != null && fieldGeneration % FIELD_RECLAIM_TICKS == 0) {
+            chunks.clearField();
+        }
+        int stamp = fieldGeneration << 8;
+
+        if (fieldQueue.length < foodCount) {
+            fieldQueue = Arrays.copyOf(fieldQueue, foodCount * 2);
+        }
+        int tail = 0;
+        for (int n = 0; n < foodCount; n++) {
+            storeField(foodCells[n], stamp);
+            fieldQueue[tail++] = foodCells[n];
+        }
+
+        int size = width * height;
+        int maxDistance = FOOD_FIELD_RADIUS;
+        for (int head = 0; head < tail; head++) {
+            int cell = fieldQueue[head];
+            int distance = (fieldAt(cell) & 0xFF) + 1;
+            if (distance > maxDistance) {
+                break; // the queue is in distance order, so every cell left is as far
+            }
+            if (tail >= FOOD_FIELD_BUDGET) {
+                // over budget: finish the cells at this distance, so none of them is missed, but go no further
+                maxDistance = distance;
+            }
+            int reached = stamp | distance;
+            int x = cell % width;
+            if (x + 1 < width) {
+                tail = reachFoodField(cell + 1, reached, tail);
+            }
+            if (x > 0) {
+                tail = reachFoodField(cell - 1, reached, tail);
+            }
+            if (cell + width < size) {
+                tail = reachFoodField(cell + width, reached, tail);
+            }
+            if (cell >= width) {
+                tail = reachFoodField(cell - width, reached, tail);
+            }
+        }
+    }
+
+    /**
+     * Adds a neighbouring cell to the food distance field search if it is EMPTY and not reached yet.
+     *
+     * @param cell The index of the cell.
+     * @param reached The value to stamp it with: the current generation and its distance.
+     * @param tail The end of the search queue.
+     * @return The new end of the search queue.
+     */
+    private int reachFoodField(int cell, int reached, int tail) {
+        if (cellAt(cell) == EMPTY && fieldAt(cell) >>> 8 != fieldGeneration) {
+            storeField(cell, reached);
+            if (tail == fieldQueue.length) {
+                fieldQueue = Arrays.copyOf(fieldQueue, tail * 2);
+            }
+            fieldQueue[tail++] = cell;
+        }
+        return tail;
+    }
+
+    /**
+     * Reads a cell of the food distance field from the board's storage, dense or chunked.
+     *
+     * @param index The index of the cell.
+     * @return The stored generation and distance.
+     */
+    private int fieldAt(int index) {
+        return chunks == null ? foodField[index] : chunks.field(index);
+    }
+
+    /**
+     * Writes a cell of the food distance field.
+     *
+     * @param index The index of the cell.
+     * @param value The generation and distance to store.
+     */
+    private void storeField(int index, int value) {
+        if (chunks == null) {
+            foodField[index] = value;
+        } else {
+            chunks.setField(index, value);
+        }
+    }
+
+    /**
+     * Looks up a cell in the food distance field computed at the start of the tick.
+     *
+     * @param index The index of the cell.
+     * @return The number of moves from the cell to the nearest food through empty tiles,
+     * or Integer.MAX_VALUE if no food is within FOOD_FIELD_RADIUS moves.
+     */
+    int foodDistance(int index) {
+        if (fieldQueue == null || fieldGeneration == 0) {
+            return Integer.MAX_VALUE;
+        }
+        int value = fieldAt(index);
+        return value >>> 8 == fieldGeneration ? value & 0xFF : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Retrieves the distance to the nearest food that the enemy snakes steer by, as of the start of the last tick.
+     * The field is only computed on boards with enemy snakes.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The number of moves to the nearest food through empty tiles,
+     * or Integer.MAX_VALUE if none is in reach or the position is off the board.
+     */
+    public int getFoodDistance(int x, int y) {
+        return isValidPos(x, y) ? foodDistance(index(x, y)) : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Marks a cell as holding the head of a live snake.
+     *
+     * @param index The index of the cell.
+     */
+    void markHead(int index) {
+        if (chunks == null) {
+            headBits[index >>> 6] |= 1L << index;
+        } else {
+            chunks.setHead(index, true);
+        }
+    }
+
+    /**
+     * Marks a cell as no longer holding a snake head.
+     *
+     * @param index The index of the cell.
+     */
+    void unmarkHead(int index) {
+        if (chunks == null) {
+            headBits[index >>> 6] &= ~(1L << index);
+        } else {
+            chunks.setHead(index, false);
+        }
+    }
+
+    /**
+     * Checks whether a cell holds the head of a live snake.
+     *
+     * @param index The index of the cell.
+     * @return true if a live snake's head is on the cell.
+     */
+    boolean isHead(int index) {
+        if (chunks != null) {
+            return chunks.isHead(index);
+        }
+        return (headBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Checks whether a position holds the head of a live snake, the user's or an enemy's.
+     * Unlike locateHeads(), this is a single array probe.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return true if a live snake's head is at the position, false if not or if the position is off the board.
+     */
+    public boolean isHead(int x, int y) {
+        return isValidPos(x, y) && isHead(index(x, y));
+    }
+
+    /**
+     * Starts or stops recording changed cells. Boards start without it, so headless games never fill a list
+     * nobody empties; renderers switch it on when they attach and draw every tile on their first frame.
+     * Stopping empties the changed-cell list.
+     *
+     * @param on true to record changed cells for getDirtyCount() and friends.
+     */
+    public void setChangeTracking(boolean on) {
+        if (on && dirtyCells == null) {
+            dirtyCells = new int[64];
+            if (chunks == null) {
+                dirtyBits = new long[(width * height + 63) >>> 6];
+            }
+        }
+        if (!on) {
+            clearDirty();
+        }
+        trackingChanges = on;
+    }
+
+    /**
+     * Checks whether changed cells are being recorded.
+     *
+     * @return true once setChangeTracking(true) has been called, until it is switched off.
+     */
+    public boolean isChangeTracking() {
+        return trackingChanges;
+    }
+
+    /**
+     * Records a changed cell for renderers, once per cell until the next clearDirty(). Does nothing while
+     * changes are not tracked.
+     *
+     * @param index The index of the cell.
+     */
+    private void markDirty(int index) {
+        if (!trackingChanges) {
+            return;
+        }
+        if (chunks != null) {
+            if (!chunks.markDirty(index)) {
+                return;
+            }
+        } else {
+            long bit = 1L << index;
+            if ((dirtyBits[index >>> 6] & bit) != 0) {
+                return;
+            }
+            dirtyBits[index >>> 6] |= bit;
+        }
+        if (dirtyCount == dirtyCells.length) {
+            dirtyCells = Arrays.copyOf(dirtyCells, dirtyCount * 2);
+        }
+        dirtyCells[dirtyCount++] = index;
+    }
+
+    /**
+     * Retrieves the number of cells changed since the last clearDirty().
+     *
+     * @return The number of changed cells, always 0 while changes are not tracked.
+     */
+    public int getDirtyCount() {
+        return dirtyCount;
+    }
+
+    /**
+     * Retrieves the x-coordinate of a changed cell.
+     *
+     * @param i The position in the changed-cell list, from 0 to getDirtyCount() - 1.
+     * @return The x-coordinate of the changed cell.
+     */
+    public int getDirtyX(int i) {
+        return cellX(dirtyCells[i]);
+    }
+
+    /**
+     * Retrieves the y-coordinate of a changed cell.
+     *
+     * @param i The position in the changed-cell list, from 0 to getDirtyCount() - 1.
+     * @return The y-coordinate of the changed cell.
+     */
+    public int getDirtyY(int i) {
+        return cellY(dirtyCells[i]);
+    }
+
+    /**
+     * Empties the changed-cell list. Renderers call this once they have drawn every changed cell.
+     */
+    public void clearDirty() {
+        for (int i = 0; i < dirtyCount; i++) {
+            int index = dirtyCells[i];
+            if (chunks == null) {
+                dirtyBits[index >>> 6] &= ~(1L << index);
+            } else {
+                chunks.clearDirty(index);
+            }
+        }
+        dirtyCount = 0;
+    }
+
+    /**
+     * Converts coordinates into an index of the flat cell storage.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The index y * width + x.
+     */
+    int index(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * Returns the x-coordinate of a cell index.
+     *
+     * @param cell The index of the cell.
+     * @return The x-coordinate of the cell.
+     */
+    int cellX(int cell) {
+        return cell % width;
+    }
+
+    /**
+     * Returns the y-coordinate of a cell index.
+     *
+     * @param cell The index of the cell.
+     * @return The y-coordinate of the cell.
+     */
+    int cellY(int cell) {
+        return cell / width;
+    }
+
+    /**
+     * Retrieves the type of a cell by index.
+     *
+     * @param cell The index of the cell.
+     * @return The type of the cell.
+     */
+    TileType typeAt(int cell) {
+        return TILE_TYPES[cellAt(cell)];
+    }
+
+    /**
+     * Creates a Tile view of a cell.
+     *
+     * @param cell The index of the cell.
+     * @return The tile at that cell.
+     */
+    Tile tileAt(int cell) {
+        return new Tile(this, cellX(cell), cellY(cell));
+    }
+
+    /**
+     * Moves part of a snake onto a cell, following the same rule as Tile.setUserSnake() and
+     * Tile.setEnemySnake(): the cell must be empty or contain food.
+     *
+     * @param cell The index of the cell.
+     * @param snake U_SNAKE or E_SNAKE.
+     * @throws Exception If the cell is occupied by anything but food.
+     */
+    void occupy(int cell, TileType snake) throws Exception {
+        byte current = cellAt(cell);
+        if (current != EMPTY && current != FOOD) {
+            String owner = snake == TileType.U_SNAKE ? "USER" : "ENEMY";
+            throw new Exception("Tile: Invalid " + owner + " snake placement at (" + cellX(cell) + ", " + cellY(cell) + ")");
+        }
+        setCell(cell, (byte) snake.ordinal());
+    }
+
+    /**
+     * Resets a cell to EMPTY.
+     *
+     * @param cell The index of the cell.
+     */
+    void clearCell(int cell) {
+        setCell(cell, EMPTY);
+    }
+
     /**
      * Checks if the specified position is a valid tile within the bounds of the board.
      *
@@ -386,13 +1159,105 @@ public class Board {
 
     /**
      * Retrieves the map of tiles representing the game board.
+     * The board no longer stores Tile objects, so this builds a view of every tile; each
+     * Tile reads and writes through to the board. Prefer getType() or getTile() for single tiles.
      *
-     * @return A two-dimensional array of Tile objects.
+     * @return A two-dimensional array of Tile objects indexed [x][y].
      */
     public Tile[][] getMap() {
+        Tile[][] map = new Tile[width][height];
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                map[i][j] = new Tile(this, i, j);
+            }
+        }
         return map;
     }
 
+    /**
+     * Sets how many enemy snakes the board needs before their moves are decided in parallel.
+     * The game plays out the same either way.
+     *
+     * @param enemies The enemy count from which to decide in parallel, Integer.MAX_VALUE to never do so.
+     */
+    public void setParallelThreshold(int enemies) {
+        this.parallelThreshold = enemies;
+    }
+
+    /**
+     * Retrieves how many 64x64 chunks of cell storage the board has allocated, which grows with the area
+     * written rather than with the size of the board.
+     *
+     * @return The number of allocated chunks, 0 for boards of up to 1024x1024 tiles, which are not chunked.
+     */
+    public int getAllocatedChunks() {
+        return chunks == null ? 0 : chunks.getAllocatedChunks();
+    }
+
+    /**
+     * Retrieves the seed of the board's randomness.
+     *
+     * @return The seed given to the constructor, or the one picked for it.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Checks whether the board was built from explicit dimensions, by the custom-board constructors.
+     *
+     * @return true for custom boards, false for boards built from a level.
+     */
+    boolean isCustomLayout() {
+        return customLayout;
+    }
+
+    /**
+     * Retrieves the level number the board was built for, as given to Board(int level).
+     * Only meaningful when the board is not a custom layout.
+     *
+     * @return The level number.
+     */
+    int getLevel() {
+        return level + 1;
+    }
+
+    /**
+     * Retrieves the number of foods the board was built with.
+     *
+     * @return The starting number of foods.
+     */
+    int getNumFoods() {
+        return numFoods;
+    }
+
+    /**
+     * Retrieves the number of obstacles the board was built with.
+     *
+     * @return The number of obstacles.
+     */
+    int getNumbObstacles() {
+        return numbObstacles;
+    }
+
+    /**
+     * Retrieves the number of enemy snakes the board was built with.
+     *
+     * @return The starting number of enemy snakes.
+     */
+    int getNumbEnemySnakes() {
+        return numbEnemySnakes;
+    }
+
+    /**
+     * Retrieves the column the user snake started in.
+     *
+     * @return The starting x-coordinate of the user snake.
+     */
+    int getSnakeStartingX() {
+        return snakeStartingX;
+    }
+
     /**
      * Retrieves the height of the game board.
      *
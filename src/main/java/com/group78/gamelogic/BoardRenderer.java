@@ -0,0 +1,15 @@
+package com.group78.gamelogic;
+
+/**
+ * The BoardRenderer interface defines a display for the game board that GameLoop draws to after each frame.
+ * Implementations may redraw only the tiles in the board's changed-cell list, after switching it on with
+ * Board.setChangeTracking(true), and must call Board.clearDirty() once they have drawn them.
+ */
+public interface BoardRenderer {
+    /**
+     * Draws the current state of the board.
+     *
+     * @param board The game board to draw.
+     */
+    void drawBoard(Board board);
+}
@@ -0,0 +1,250 @@
+package com.group78.gamelogic;
+
+import java.util.Arrays;
+
+/**
+ * The cell storage of a large board, split into 64x64 chunks that are only allocated once a cell in them
+ * is written. An unallocated chunk reads as all EMPTY, so a mostly empty board costs memory for the area
+ * its snakes, food and obstacles have touched rather than for its whole area.
+ * <p>
+ * Cells keep the indices of the dense storage, {@code y * width + x} (see Board), so everything outside
+ * the board's storage code works the same on both. Besides the tile type, each allocated chunk holds the
+ * head bits of its cells; the dirty bits, the food slots and the food distance field get their own chunks,
+ * allocated only where a change is tracked, where there is food or where the field reaches.
+ */
+class ChunkedCells {
+    /** log2 of the chunk side. */
+    private static final int SHIFT = 6;
+
+    /** The chunk side minus one, to take a coordinate within its chunk. */
+    private static final int MASK = (1 << SHIFT) - 1;
+
+    /** The number of cells in a chunk. */
+    static final int CHUNK_CELLS = 1 << (2 * SHIFT);
+
+    /** The width of the board in cells. */
+    private final int width;
+
+    /** The number of chunks across the board. */
+    private final int columns;
+
+    /** The tile type of every cell, as the ordinal of its TileType, per chunk. */
+    private final byte[][] types;
+
+    /** One bit per cell, set while the cell is in the board's changed-cell list, per chunk that has been marked. */
+    private final long[][] dirty;
+
+    /** One bit per cell, set while the cell holds the head of a live snake, allocated with the type chunk. */
+    private final long[][] heads;
+
+    /** For each FOOD cell its slot in the board's food list, per chunk that has held food. */
+    private final int[][] slots;
+
+    /** The food distance field, as stored by the board, per chunk the field has reached. */
+    private final int[][] field;
+
+    /** The number of type chunks allocated. */
+    private int allocated;
+
+    /**
+     * Constructs an all EMPTY storage, with no chunk allocated.
+     *
+     * @param width The width of the board in cells.
+     * @param height The height of the board in cells.
+     */
+    ChunkedCells(int width, int height) {
+        this.width = width;
+        this.columns = (width + MASK) >>> SHIFT;
+        int chunks = columns * ((height + MASK) >>> SHIFT);
+        this.types = new byte[chunks][];
+        this.dirty = new long[chunks][];
+        this.heads = new long[chunks][];
+        this.slots = new int[chunks][];
+        this.field = new int[chunks][];
+    }
+
+    /**
+     * Returns the chunk a cell is in.
+     *
+     * @param index The index of the cell.
+     * @return The position of its chunk in the chunk arrays.
+     */
+    private int chunkOf(int index) {
+        int y = index / width;
+        int x = index - y * width;
+        return (y >>> SHIFT) * columns + (x >>> SHIFT);
+    }
+
+    /**
+     * Returns the position of a cell within its chunk.
+     *
+     * @param index The index of the cell.
+     * @return The position of the cell in its chunk, from 0 to CHUNK_CELLS - 1.
+     */
+    private int offsetOf(int index) {
+        int y = index / width;
+        int x = index - y * width;
+        return (y & MASK) << SHIFT | (x & MASK);
+    }
+
+    /**
+     * Reads a cell.
+     *
+     * @param index The index of the cell.
+     * @return The stored byte value of its TileType, 0 (EMPTY) if its chunk is not allocated.
+     */
+    byte get(int index) {
+        byte[] chunk = types[chunkOf(index)];
+        return chunk == null ? 0 : chunk[offsetOf(index)];
+    }
+
+    /**
+     * Writes a cell, allocating its chunk if needed.
+     *
+     * @param index The index of the cell.
+     * @param value The stored byte value of the new TileType.
+     */
+    void set(int index, byte value) {
+        int chunk = chunkOf(index);
+        if (types[chunk] == null) {
+            types[chunk] = new byte[CHUNK_CELLS];
+            heads[chunk] = new long[CHUNK_CELLS >>> 6];
+            allocated++;
+        }
+        types[chunk][offsetOf(index)] = value;
+    }
+
+    /**
+     * Reads the food slot of a FOOD cell.
+     *
+     * @param index The index of the cell.
+     * @return Its slot in the board's food list.
+     */
+    int slot(int index) {
+        return slots[chunkOf(index)][offsetOf(index)];
+    }
+
+    /**
+     * Stores the food slot of a FOOD cell, allocating its slot chunk if needed.
+     *
+     * @param index The index of the cell.
+     * @param slot Its slot in the board's food list.
+     */
+    void setSlot(int index, int slot) {
+        int chunk = chunkOf(index);
+        if (slots[chunk] == null) {
+            slots[chunk] = new int[CHUNK_CELLS];
+        }
+        slots[chunk][offsetOf(index)] = slot;
+    }
+
+    /**
+     * Reads a cell of the food distance field.
+     *
+     * @param index The index of the cell.
+     * @return The stored field value, 0 if the field never reached the cell's chunk.
+     */
+    int field(int index) {
+        int[] chunk = field[chunkOf(index)];
+        return chunk == null ? 0 : chunk[offsetOf(index)];
+    }
+
+    /**
+     * Writes a cell of the food distance field, allocating its field chunk if needed.
+     *
+     * @param index The index of the cell.
+     * @param value The field value.
+     */
+    void setField(int index, int value) {
+        int chunk = chunkOf(index);
+        if (field[chunk] == null) {
+            field[chunk] = new int[CHUNK_CELLS];
+        }
+        field[chunk][offsetOf(index)] = value;
+    }
+
+    /**
+     * Drops the whole food distance field, so every cell reads as 0 again.
+     */
+    void clearField() {
+        Arrays.fill(field, null);
+    }
+
+    /**
+     * Sets the dirty bit of a cell, allocating its dirty chunk if needed.
+     *
+     * @param index The index of the cell.
+     * @return true if the bit was not set yet.
+     */
+    boolean markDirty(int index) {
+        int chunk = chunkOf(index);
+        long[] bits = dirty[chunk];
+        if (bits == null) {
+            bits = new long[CHUNK_CELLS >>> 6];
+            dirty[chunk] = bits;
+        }
+        int offset = offsetOf(index);
+        long bit = 1L << offset;
+        if ((bits[offset >>> 6] & bit) != 0) {
+            return false;
+        }
+        bits[offset >>> 6] |= bit;
+        return true;
+    }
+
+    /**
+     * Clears the dirty bit of a cell.
+     *
+     * @param index The index of the cell, which must have been marked.
+     */
+    void clearDirty(int index) {
+        int offset = offsetOf(index);
+        dirty[chunkOf(index)][offset >>> 6] &= ~(1L << offset);
+    }
+
+    /**
+     * Sets or clears the head bit of a cell, allocating its head chunk for a set if needed.
+     * Clearing a cell of a chunk without heads does nothing.
+     *
+     * @param index The index of the cell.
+     * @param head true to mark a head on the cell, false to clear it.
+     */
+    void setHead(int index, boolean head) {
+        int chunk = chunkOf(index);
+        long[] bits = heads[chunk];
+        if (bits == null) {
+            if (!head) {
+                return;
+            }
+            bits = new long[CHUNK_CELLS >>> 6];
+            heads[chunk] = bits;
+        }
+        int offset = offsetOf(index);
+        if (head) {
+            bits[offset >>> 6] |= 1L << offset;
+        } else {
+            bits[offset >>> 6] &= ~(1L << offset);
+        }
+    }
+
+    /**
+     * Checks the head bit of a cell.
+     *
+     * @param index The index of the cell.
+     * @return true if the cell is marked as holding a head.
+     */
+    boolean isHead(int index) {
+        long[] bits = heads[chunkOf(index)];
+        int offset = offsetOf(index);
+        return bits != null && (bits[offset >>> 6] & (1L << offset)) != 0;
+    }
+
+    /**
+     * Retrieves the number of chunks holding tile types, which is the area of the board that has been written.
+     *
+     * @return The number of allocated type chunks.
+     */
+    int getAllocatedChunks() {
+        return allocated;
+    }
+}
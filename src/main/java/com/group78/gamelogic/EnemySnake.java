@@ -1,21 +1,16 @@
 package com.group78.gamelogic;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.SplittableRandom;
 
 
 public class EnemySnake {
     /** The size of the enemy snake, represented by the number of tiles it occupies. */
     private int snakeSize;
 
-    /** The head tile of the enemy snake. */
-    private Tile head;
-
-    /** The tail tile of the enemy snake. */
-    private Tile tail;
-
-    /** A list of tiles currently occupied by the enemy snake. */
-    private LinkedList<Tile> currentTiles;
+    /** The cells currently occupied by the enemy snake, from head to tail, stored in a ring buffer of cell indices. */
+    private SnakeBody body;
 
     /** The game board on which the enemy snake moves. */
     private Board board;
@@ -38,8 +33,18 @@ public class EnemySnake {
     /** A difficulty factor influencing the enemy snake's behavior. */
     private double diffFactor;
 
+    /** The source of this snake's random choices, split from the board's generator. */
+    private SplittableRandom random;
+
+    /** The move probabilities of the current decision, reused every tick so deciding does not allocate. */
+    private final double[] moveScores = new double[4];
+
+    /** The chances of not killing and killing, reused every tick like moveScores. */
+    private final double[] killchance = new double[2];
+
     /**
      * Constructs an enemy snake with specified starting tiles, direction, and difficulty.
+     * Its random choices are seeded from a fresh, unpredictable seed.
      *
      * @param board The game board on which the snake moves.
      * @param startingTiles The initial tiles occupied by the snake.
@@ -47,16 +52,32 @@ public class EnemySnake {
      * @param difficulty The difficulty level affecting the snake's behavior.
      */
     public EnemySnake(Board board, LinkedList<Tile> startingTiles, Direction startingDir, int difficulty) {
+        this(board, startingTiles, startingDir, difficulty, new SplittableRandom());
+    }
+
+    /**
+     * Constructs an enemy snake with specified starting tiles, direction, difficulty and random generator.
+     *
+     * @param board The game board on which the snake moves.
+     * @param startingTiles The initial tiles occupied by the snake.
+     * @param startingDir The initial direction of the snake's movement.
+     * @param difficulty The difficulty level affecting the snake's behavior.
+     * @param random The generator of the snake's random choices, not shared with other snakes.
+     */
+    public EnemySnake(Board board, LinkedList<Tile> startingTiles, Direction startingDir, int difficulty, SplittableRandom random) {
         this.board = board;
         this.snakeSize = startingTiles.size();
-        this.currentTiles = startingTiles;
-        this.head = this.currentTiles.getFirst();
-        this.tail = this.currentTiles.getLast();
-        this.boardWidth = board.getMap().length;
-        this.boardHeight = board.getMap()[0].length;
+        this.body = new SnakeBody(startingTiles.size());
+        for (Tile tile : startingTiles) {
+            this.body.addLast(board.index(tile.getTileX(), tile.getTileY()));
+        }
+        board.markHead(this.body.getFirst());
+        this.boardWidth = board.getWidth();
+        this.boardHeight = board.getHeight();
         this.dir = startingDir;
         this.state = 0;
         this.diffFactor = difficulty;
+        this.random = random;
     }
 
     /**
@@ -97,22 +118,26 @@ public class EnemySnake {
      * @throws Exception
      */
     public void move() throws Exception {
-        // To make sure it's not dead
+        commit(decide());
+    }
+
+    /**
+     * Picks the snake's next move (steps 1 to 4 of move()) from the board as it is, without changing the board.
+     * Only the snake's own kill state and random generator are updated, so the decisions of all snakes
+     * can be made in parallel against the same board.
+     *
+     * @return The index of the picked direction in moveScores, or -1 if the snake is dead.
+     */
+    int decide() {
         if (dir == Direction.NA) {
-            if (snakeSize != 0) {
-                while (!currentTiles.isEmpty()) {
-                    currentTiles.getFirst().clear();
-                    currentTiles.removeFirst();
-                }
-                snakeSize = 0;
-            }
-            return;
+            return -1;
         }
 
-        double moveScores[] = {50, 50, 50, 50};
+        double[] moveScores = this.moveScores;
+        Arrays.fill(moveScores, 50);
         int X, Y;
-        X = head.getTileX();
-        Y = head.getTileY();
+        X = board.cellX(body.getFirst());
+        Y = board.cellY(body.getFirst());
         // removing not possible moves
         if (dir == Direction.UP || Y - 1 < 0) {
             moveScores[2] = 0;
@@ -137,17 +162,38 @@ public class EnemySnake {
                 moveScores = killSnakes(moveScores);
             }
             if (state == 0) { // State zero; sight = 1 block, not killing anyone
-                for (int i =0; i< moveScores.length;i++ ){
-                }
                 moveScores = simpleAI(moveScores);
             }
         } else {// implement 2nd move for the kills
             killSnakes(moveScores, true);
         }
 
-
         // pick random move
-        int dirIndex = randIndex(moveScores);
+        return randIndex(moveScores);
+    }
+
+    /**
+     * Moves the snake in the direction picked by decide() (step 5 of move()). The tile is checked on the board
+     * as it is now, so when snakes are committed one after another, a snake moving into a tile that an earlier
+     * snake just took dies.
+     *
+     * @param dirIndex The index of the direction returned by decide().
+     * @throws Exception If the move leads off the board.
+     */
+    void commit(int dirIndex) throws Exception {
+        // To make sure it's not dead
+        if (dir == Direction.NA) {
+            if (snakeSize != 0) {
+                while (!body.isEmpty()) {
+                    board.clearCell(body.removeFirst());
+                }
+                snakeSize = 0;
+            }
+            return;
+        }
+
+        int X = board.cellX(body.getFirst());
+        int Y = board.cellY(body.getFirst());
         // implementing NextMove
         if (dirIndex == 0) {
             Y++;
@@ -166,28 +212,28 @@ public class EnemySnake {
         }
 
 
-        Tile nextTile = board.getTile(X, Y);
-
-        if (nextTile == null)
-            System.out.println("next tile is null");
+        if (!board.isValidPos(X, Y)) {
+            EventLog.game().log(LogLevel.DEBUG, "EnemySnake: next tile is off the board at ({}, {})", X, Y);
+            throw new Exception("EnemySnake: next tile is off the board at (" + X + ", " + Y + ")");
+        }
+        int nextCell = board.index(X, Y);
+        TileType nextType = board.typeAt(nextCell);
 
-        currentTiles.addFirst(nextTile);
-        this.head = nextTile;
-        if (nextTile.getType() == TileType.FOOD) {
+        board.unmarkHead(body.getFirst());
+        body.addFirst(nextCell);
+        if (nextType == TileType.FOOD) {
             eatFood();
-        } else if (nextTile.getType() != TileType.EMPTY) {
+        } else if (nextType != TileType.EMPTY) {
             death();
             return;
         }
-
-        nextTile.setEnemySnake();
+        board.occupy(nextCell, TileType.E_SNAKE);
+        board.markHead(nextCell);
 
 
         // updating size
-        if (currentTiles.size() > snakeSize) {
-            currentTiles.removeLast();
-            tail.clear();
-            tail = currentTiles.getLast();
+        if (body.size() > snakeSize) {
+            board.clearCell(body.removeLast());
         }
     }
 
@@ -213,7 +259,7 @@ public class EnemySnake {
             probabilities[i] = (probabilities[i] / sum) * 100;
         }
 
-        int value = (int) (Math.random() * 100);
+        int value = (int) (random.nextDouble() * 100);
         // find what index was picked. By >
         for (int i = 0; i < probabilities.length; i++) {
             if (value <= probabilities[i]) {
@@ -232,6 +278,9 @@ public class EnemySnake {
      * <br>
      * If the tile in this direction is part of the snake body, divide by 100 *1,000. Snake suicide prevention code.
      * <br>
+     * If no food is in sight, the moves on the shortest path to the nearest food, read from the board's shared
+     * food distance field, are multiplied by diffFactor.
+     * <br>
      *
      * @param moveScores current probability of all possible moves
      * @return moveScores - new probability of all possible moves
@@ -239,9 +288,10 @@ public class EnemySnake {
     private double[] simpleAI(double[] moveScores) {
         // simple go for food nearby and avoidance
         int newX, newY, X, Y;
-        X = head.getTileX();
-        Y = head.getTileY();
-        Tile next;
+        X = board.cellX(body.getFirst());
+        Y = board.cellY(body.getFirst());
+        TileType next;
+        boolean foodInSight = false;
         for (int i = 0; i < moveScores.length; i++) {
             if (moveScores[i] == 0) {
                 continue;
@@ -262,18 +312,48 @@ public class EnemySnake {
                 if (!board.isValidPos(newX, newY)) {
                     break;
                 }
-                next = board.getTile(newX, newY);
+                next = board.getType(newX, newY);
 
-                if (next.getType() == TileType.FOOD) {//Food this way
-                    System.out.println("moveS "+ moveScores[i]+" diff "+diffFactor+"result "+moveScores[i]*diffFactor);
+                if (next == TileType.FOOD) {//Food this way
                     moveScores[i] *= diffFactor;
+                    foodInSight = true;
                     // no break here because food is not worth more than a snake hiding behind.
-                } else if (next.getType() != TileType.EMPTY) {//Something is in the path do not come
+                } else if (next != TileType.EMPTY) {//Something is in the path do not come
                     moveScores[i] /= diffFactor;
                     break;
                 }
             }
         }
+
+        // Food further away: follow the distance field. Skipped for factors up to 1, which would not scale up
+        if (!foodInSight && diffFactor > 1) {
+            int best = Integer.MAX_VALUE;
+            int bestMoves = 0;// bit i set for each move i at the best distance
+            for (int i = 0; i < moveScores.length; i++) {
+                if (moveScores[i] == 0) {
+                    continue;
+                }
+                newX = X + (i == 1 ? 1 : i == 3 ? -1 : 0);
+                newY = Y + (i == 0 ? 1 : i == 2 ? -1 : 0);
+                if (!board.isValidPos(newX, newY)) {
+                    continue;
+                }
+                int distance = board.foodDistance(board.index(newX, newY));
+                if (distance < best) {
+                    best = distance;
+                    bestMoves = 1 << i;
+                } else if (distance == best) {
+                    bestMoves |= 1 << i;
+                }
+            }
+            if (best != Integer.MAX_VALUE) {
+                for (int i = 0; i < moveScores.length; i++) {
+                    if ((bestMoves & (1 << i)) != 0) {
+                        moveScores[i] *= diffFactor;
+                    }
+                }
+            }
+        }
         return moveScores;
     }
 
@@ -350,7 +430,8 @@ public class EnemySnake {
          */
 
         // to kill or not to kill
-        double killchance[] = {50 / diffFactor, 50 * diffFactor}; // 0= not to kill, 1 = kill
+        killchance[0] = 50 / diffFactor; // 0= not to kill, 1 = kill
+        killchance[1] = 50 * diffFactor;
         if (randIndex(killchance) == 0) {
             return moveScores;// will not kill
         }
@@ -466,11 +547,8 @@ public class EnemySnake {
      * @return if there is a killable snake
      */
     private boolean canKill() {
-        ArrayList<Tile> heads = board.locateHeads();
-        heads.remove(head);
-
-        int X = head.getTileX();
-        int Y = head.getTileY();
+        int X = board.cellX(body.getFirst());
+        int Y = board.cellY(body.getFirst());
 
         // relative vectors I and J
         int I;
@@ -483,33 +561,33 @@ public class EnemySnake {
             J = X;
         }
         if (I - 2 < 0) {
-            if (board.isValidPos(I - 2, I) && heads.contains(board.getTile(I - 2, J))) {
+            if (board.isValidPos(I - 2, I) && isOtherHead(I - 2, J)) {
                 state = 1;
                 return true;
             } else if (J - 2 < 0) {
-                if (board.isValidPos(I - 2, J - 2) && heads.contains(board.getTile(I - 2, J - 2))) {
+                if (board.isValidPos(I - 2, J - 2) && isOtherHead(I - 2, J - 2)) {
                     state = 2;
                     return true;
                 }
             }
             if (I - 3 < 0) {
-                if (board.isValidPos(I - 2, J - 3) && heads.contains((board.getTile(I - 2, J - 3)))) {
+                if (board.isValidPos(I - 2, J - 3) && isOtherHead(I - 2, J - 3)) {
                     state = 3;
                 }
             }
         }
         if (J + 2 < 0) {
-            if (board.isValidPos(I + 2, J) && heads.contains(board.getTile(I + 2, J))) {
+            if (board.isValidPos(I + 2, J) && isOtherHead(I + 2, J)) {
                 state = 4;
                 return true;
             } else if (I - 2 < 0) {
-                if (board.isValidPos(I + 2, J - 2) && heads.contains(board.getTile(I + 2, J - 2))) {
+                if (board.isValidPos(I + 2, J - 2) && isOtherHead(I + 2, J - 2)) {
                     state = 5;
                     return true;
                 }
             }
             if (I - 3 < 0) {
-                if (board.isValidPos(I + 2, J - 3) && heads.contains((board.getTile(I + 2, J - 3)))) {
+                if (board.isValidPos(I + 2, J - 3) && isOtherHead(I + 2, J - 3)) {
                     state = 6;
                     return true;
                 }
@@ -528,6 +606,17 @@ public class EnemySnake {
         return false;
     }
 
+    /**
+     * Checks the board's head index for the head of another live snake, the user's or an enemy's.
+     *
+     * @param x The x-coordinate to look at.
+     * @param y The y-coordinate to look at.
+     * @return true if a snake other than this one has its head there.
+     */
+    private boolean isOtherHead(int x, int y) {
+        return board.isHead(x, y) && board.index(x, y) != body.getFirst();
+    }
+
     /**
      * Lets the snake eat food
      * <p>
@@ -556,6 +645,6 @@ public class EnemySnake {
         if (this.dir == Direction.NA) {
             return null;
         }
-        return head;
+        return board.tileAt(body.getFirst());
     }
 }
\ No newline at end of file
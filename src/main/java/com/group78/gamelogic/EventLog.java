@@ -0,0 +1,372 @@
+package com.group78.gamelogic;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The EventLog class records game events without slowing the tick down.
+ * Events go into a fixed-size lock-free ring buffer and a background thread writes them to a file,
+ * so logging never blocks on I/O or on other threads. An event is a message template plus up to two numbers,
+ * stored as they are and only formatted by the background thread, so logging does not allocate either.
+ * A disabled level costs one field read. When the ring is full, new events are dropped and counted
+ * rather than waiting for space.
+ * <p>
+ * The game logs to game(), which writes to src/main/game.log at INFO and above. The file and level can be
+ * changed with the snake.log.file and snake.log.level system properties.
+ */
+public class EventLog {
+    /** The log of the game, created on first use. */
+    private static final EventLog GAME = new EventLog(
+            Paths.get(System.getProperty("snake.log.file", "src/main/game.log")),
+            LogLevel.valueOf(System.getProperty("snake.log.level", "INFO")),
+            4096);
+
+    /** The longest the background thread sleeps while the ring is empty. */
+    private static final long IDLE_PARK_NANOS = 5_000_000;
+
+    /** The file events are appended to. */
+    private final Path file;
+
+    /** The ordinal of the lowest level recorded. */
+    private volatile int threshold;
+
+    /** The number of slots minus one, the ring size being a power of two. */
+    private final int mask;
+
+    /**
+     * The sequence number of each slot: equal to the position of the next event it may take when free,
+     * one past that position once the event is written and ready to drain.
+     */
+    private final AtomicLongArray sequences;
+
+    /** The event fields, one entry per slot. */
+    private final LogLevel[] levels;
+    private final long[] times;
+    private final String[] threads;
+    private final String[] templates;
+    private final long[] firstArgs;
+    private final long[] secondArgs;
+    private final Throwable[] errors;
+
+    /** The position the next event is written at. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** The position of the next event to drain, only moved by the background thread. */
+    private volatile long head;
+
+    /** The number of events dropped because the ring was full or the log was closed. */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** Whether the background thread has been started. */
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /** Set by close() to stop the background thread. */
+    private volatile boolean closed;
+
+    /** The background thread, once started. */
+    private volatile Thread drainer;
+
+    /** The shutdown hook closing the log, registered with the background thread and removed by close(). */
+    private volatile Thread shutdownHook;
+
+    /**
+     * Constructs a log writing to a file. The file and the background thread are only created
+     * once the first event is recorded.
+     *
+     * @param file The file events are appended to.
+     * @param level The lowest level recorded.
+     * @param capacity The number of events the ring holds, rounded up to a power of two.
+     */
+    public EventLog(Path file, LogLevel level, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.file = file;
+        this.threshold = level.ordinal();
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.levels = new LogLevel[size];
+        this.times = new long[size];
+        this.threads = new String[size];
+        this.templates = new String[size];
+        this.firstArgs = new long[size];
+        this.secondArgs = new long[size];
+        this.errors = new Throwable[size];
+    }
+
+    /**
+     * Retrieves the log of the game.
+     *
+     * @return The game's event log.
+     */
+    public static EventLog game() {
+        return GAME;
+    }
+
+    /**
+     * Checks whether events of a level are recorded, to skip building a message that would be thrown away.
+     *
+     * @param level The level to check.
+     * @return true if events of the level are recorded.
+     */
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= threshold;
+    }
+
+    /**
+     * Sets the lowest level recorded.
+     *
+     * @param level The new level, OFF to record nothing.
+     */
+    public void setLevel(LogLevel level) {
+        this.threshold = level.ordinal();
+    }
+
+    /**
+     * Records a message.
+     *
+     * @param level The level of the event.
+     * @param message The message.
+     */
+    public void log(LogLevel level, String message) {
+        if (level.ordinal() >= threshold) {
+            offer(level, message, 0, 0, null);
+        }
+    }
+
+    /**
+     * Records a message with two numbers, written in place of the first two "{}" of the template.
+     *
+     * @param level The level of the event.
+     * @param template The message, with a "{}" for each number.
+     * @param first The number for the first "{}".
+     * @param second The number for the second "{}".
+     */
+    public void log(LogLevel level, String template, long first, long second) {
+        if (level.ordinal() >= threshold) {
+            offer(level, template, first, second, null);
+        }
+    }
+
+    /**
+     * Records a message and the error that caused it.
+     *
+     * @param level The level of the event.
+     * @param message The message.
+     * @param error The error, written after the message.
+     */
+    public void log(LogLevel level, String message, Throwable error) {
+        if (level.ordinal() >= threshold) {
+            offer(level, message, 0, 0, error);
+        }
+    }
+
+    /**
+     * Retrieves the number of events dropped because the ring was full or the log was closed.
+     *
+     * @return The dropped event count.
+     */
+    public long getDroppedCount() {
+        Thread thread = drainer;
+        if (closed && (thread == null || !thread.isAlive())) {
+            // events that took a slot as the log closed were never written
+            return dropped.get() + tail.get() - head;
+        }
+        return dropped.get();
+    }
+
+    /**
+     * Waits until every event recorded before this call is written to the file.
+     * Not meant for the tick thread, which should never wait on the log.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        long target = tail.get();
+        while (head < target && drainer != null && drainer.isAlive()) {
+            LockSupport.unpark(drainer);
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Writes the remaining events and stops the background thread. Events recorded afterwards are dropped.
+     * An interrupt while waiting for the background thread does not cut the close short; the interrupt flag
+     * is set again before returning.
+     */
+    public void close() {
+        closed = true;
+        started.set(true);
+        Thread hook = shutdownHook;
+        if (hook != null && hook != Thread.currentThread()) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException e) {
+                // the JVM is already shutting down and runs the hook anyway
+            }
+        }
+        Thread thread = drainer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Claims a free slot, fills it and publishes it to the background thread. Never waits:
+     * if the ring is full the event is dropped.
+     */
+    private void offer(LogLevel level, String template, long first, long second, Throwable error) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (!started.get() && started.compareAndSet(false, true)) {
+            startDrainer();
+        }
+
+        long position = tail.get();
+        int slot;
+        while (true) {
+            slot = (int) position & mask;
+            long free = sequences.get(slot) - position;
+            if (free == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (free < 0) {
+                // the slot still holds an event from one lap ago, so the ring is full
+                dropped.incrementAndGet();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        levels[slot] = level;
+        times[slot] = System.currentTimeMillis();
+        threads[slot] = Thread.currentThread().getName();
+        templates[slot] = template;
+        firstArgs[slot] = first;
+        secondArgs[slot] = second;
+        errors[slot] = error;
+        sequences.set(slot, position + 1);
+    }
+
+    private void startDrainer() {
+        Thread thread = new Thread(this::drain, "event-log");
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+        Thread hook = new Thread(this::close, "event-log-shutdown");
+        shutdownHook = hook;
+        Runtime.getRuntime().addShutdownHook(hook);
+    }
+
+    /**
+     * The background thread: writes events as they arrive, flushing the file whenever the ring runs empty.
+     */
+    private void drain() {
+        BufferedWriter out = null;
+        try {
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("EventLog: cannot open " + file + ", events are discarded: " + e);
+        }
+
+        StringBuilder line = new StringBuilder(128);
+        long position = head;
+        while (true) {
+            boolean stop = closed;
+            int written = 0;
+            while (true) {
+                int slot = (int) position & mask;
+                if (sequences.get(slot) != position + 1) {
+                    break;
+                }
+                line.setLength(0);
+                format(line, slot);
+                errors[slot] = null;
+                sequences.set(slot, position + mask + 1);
+                position++;
+                head = position;
+                written++;
+                if (out != null) {
+                    try {
+                        out.append(line);
+                    } catch (IOException e) {
+                        System.err.println("EventLog: cannot write " + file + ", events are discarded: " + e);
+                        out = null;
+                    }
+                }
+            }
+            if (written > 0 && out != null) {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    System.err.println("EventLog: cannot write " + file + ", events are discarded: " + e);
+                    out = null;
+                }
+            }
+            if (stop) {
+                break;
+            }
+            if (written == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("EventLog: cannot close " + file + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Formats the event in a slot as one line: time, level, thread and message.
+     */
+    private void format(StringBuilder line, int slot) {
+        line.append(Instant.ofEpochMilli(times[slot])).append(' ')
+                .append(levels[slot]).append(" [").append(threads[slot]).append("] ");
+        String template = templates[slot];
+        long[] args = {firstArgs[slot], secondArgs[slot]};
+        int arg = 0;
+        int from = 0;
+        int at;
+        while (arg < args.length && (at = template.indexOf("{}", from)) >= 0) {
+            line.append(template, from, at).append(args[arg++]);
+            from = at + 2;
+        }
+        line.append(template, from, template.length());
+        if (errors[slot] != null) {
+            line.append(": ").append(errors[slot]);
+        }
+        line.append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,164 @@
+package com.group78.gamelogic;
+
+import java.util.ArrayList;
+
+/**
+ * The GameEngine class runs the rules of the math snake game without any user interface.
+ * Each call to step() advances the board by one tick and reports the outcome, so games can be
+ * simulated headless as fast as the CPU allows. Displays subscribe as TickListeners.
+ */
+public class GameEngine {
+    /** The game board. */
+    private Board board;
+
+    /** Subscribers notified after every tick. */
+    private ArrayList<TickListener> listeners;
+
+    /** The number of ticks run so far. */
+    private long tickCount;
+
+    /** The outcome of the last tick. */
+    private TickResult lastResult;
+
+    /** The replay the directions of every tick are recorded into, or null when not recording. */
+    private Replay recording;
+
+    /**
+     * Constructs a GameEngine running the given board.
+     *
+     * @param board The game board.
+     */
+    public GameEngine(Board board) {
+        this.board = board;
+        this.listeners = new ArrayList<>();
+        this.tickCount = 0;
+        this.lastResult = TickResult.RUNNING;
+    }
+
+    /**
+     * Advances the game by one tick: moves every snake, tops the food back up, then checks whether the game is over.
+     * Once the game is over, further calls do nothing and return the final result.
+     *
+     * @param dir The direction in which the user snake should move.
+     * @return The outcome of the tick.
+     */
+    public TickResult step(Direction dir) {
+        if (lastResult != TickResult.RUNNING) {
+            return lastResult;
+        }
+
+        if (recording != null) {
+            recording.append(dir);
+        }
+        TickResult result;
+        if (!board.moveSnakes(dir)) {
+            board.setUserDead(true);
+            result = TickResult.USER_DEAD;
+        } else if (board.isEnemiesDead()) {
+            result = TickResult.ENEMIES_DEAD;
+        } else {
+            result = TickResult.RUNNING;
+            try {
+                board.updateFood();
+            } catch (Exception e) {
+                EventLog.game().log(LogLevel.WARN, "GameEngine: could not top up the food", e);
+            }
+        }
+        tickCount++;
+        lastResult = result;
+
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onTick(this, result);
+        }
+        return result;
+    }
+
+    /**
+     * Starts recording the game into a replay. Recording has to start before the first tick,
+     * since a replay always plays from the starting board.
+     *
+     * @return The replay the ticks are recorded into. It should only be read once the game is over.
+     * @throws IllegalStateException If a tick has already run.
+     */
+    public Replay startRecording() {
+        if (tickCount > 0) {
+            throw new IllegalStateException("GameEngine: recording must start before the first tick");
+        }
+        if (recording == null) {
+            recording = new Replay(board);
+        }
+        return recording;
+    }
+
+    /**
+     * Retrieves the replay being recorded.
+     *
+     * @return The replay, or null when the game is not being recorded.
+     */
+    public Replay getRecording() {
+        return recording;
+    }
+
+    /**
+     * Subscribes a listener to every following tick.
+     *
+     * @param listener The listener to add.
+     */
+    public void addTickListener(TickListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes a listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeTickListener(TickListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Calculates the current score based on the food eaten and enemies killed.
+     *
+     * @return The current score.
+     */
+    public int getScore() {
+        return (board.userFoodAte() * 50) + (board.getNumEnemiesKilled() * 50);
+    }
+
+    /**
+     * Checks whether the game has ended, won or lost.
+     *
+     * @return true once a tick returned USER_DEAD or ENEMIES_DEAD.
+     */
+    public boolean isOver() {
+        return lastResult != TickResult.RUNNING;
+    }
+
+    /**
+     * Retrieves the outcome of the last tick.
+     *
+     * @return The last tick result, RUNNING before the first tick.
+     */
+    public TickResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Retrieves the number of ticks run so far.
+     *
+     * @return The tick count.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Retrieves the board this engine runs.
+     *
+     * @return The game board.
+     */
+    public Board getBoard() {
+        return board;
+    }
+}
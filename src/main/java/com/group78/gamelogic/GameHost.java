@@ -0,0 +1,165 @@
+package com.group78.gamelogic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The GameHost class runs many independent headless games in one JVM, such as a whole class playing
+ * practice rounds at once. Each game is a GameSession with its own board and input queue, ticking on
+ * its own virtual thread. A session waiting for its next tick parks its virtual thread, which frees the
+ * platform thread it ran on, so thousands of sessions share a handful of platform threads.
+ * <p>
+ * Sessions leave the host when their game is over or they are stopped; close() stops them all.
+ */
+public class GameHost implements AutoCloseable {
+    /** The time between two ticks of every session, in milliseconds. */
+    private final long periodMillis;
+
+    /** Creates the virtual thread of each session. */
+    private final ThreadFactory threads;
+
+    /** The running sessions by number. */
+    private final Map<Long, GameSession> sessions;
+
+    /** The number of the next session. */
+    private final AtomicLong nextId;
+
+    /** Held while a session is opened and while close() takes the sessions to stop, so none is missed. */
+    private final Object lock = new Object();
+
+    /** Set by close(), after which no session can be opened. Guarded by lock. */
+    private boolean closed;
+
+    /**
+     * Constructs a host whose sessions tick at a fixed period.
+     *
+     * @param periodMillis The time between two ticks of a session in milliseconds.
+     */
+    public GameHost(long periodMillis) {
+        this.periodMillis = periodMillis;
+        this.threads = Thread.ofVirtual().name("game-session-", 0).factory();
+        this.sessions = new ConcurrentHashMap<>();
+        this.nextId = new AtomicLong();
+    }
+
+    /**
+     * Opens a session playing a board and starts ticking it.
+     *
+     * @param board The game board, which the session owns from now on.
+     * @return The running session.
+     * @throws IllegalStateException If the host is closed.
+     */
+    public GameSession open(Board board) {
+        return open(board, null);
+    }
+
+    /**
+     * Opens a session playing a board and starts ticking it, with a listener following every tick.
+     *
+     * @param board The game board, which the session owns from now on.
+     * @param listener Notified after every tick on the session's thread, or null.
+     * @return The running session.
+     * @throws IllegalStateException If the host is closed.
+     */
+    public GameSession open(Board board, TickListener listener) {
+        GameSession session = new GameSession(nextId.getAndIncrement(), this, board, periodMillis);
+        if (listener != null) {
+            session.getEngine().addTickListener(listener);
+        }
+        Thread thread = threads.newThread(session);
+        session.setThread(thread);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("GameHost: cannot open a session on a closed host");
+            }
+            sessions.put(session.getId(), session);
+            // started under the lock, so close() never waits on a thread that has not started yet
+            thread.start();
+        }
+        return session;
+    }
+
+    /**
+     * Removes a session that has ended. Called by the session itself as its thread finishes.
+     *
+     * @param session The ended session.
+     */
+    void remove(GameSession session) {
+        sessions.remove(session.getId());
+    }
+
+    /**
+     * Retrieves a running session.
+     *
+     * @param id The number of the session.
+     * @return The session, or null if it has ended or never existed.
+     */
+    public GameSession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Retrieves the sessions running at the time of the call.
+     *
+     * @return A snapshot of the running sessions.
+     */
+    public List<GameSession> getSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    /**
+     * Retrieves the number of running sessions.
+     *
+     * @return The session count.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Retrieves the largest tick lag of any running session, to spot a host that cannot keep up.
+     *
+     * @return The largest lag of the last tick of a running session, in nanoseconds.
+     */
+    public long getMaxLagNanos() {
+        long max = 0;
+        for (GameSession session : sessions.values()) {
+            max = Math.max(max, session.getLastLagNanos());
+        }
+        return max;
+    }
+
+    /**
+     * Stops every session and waits for their threads to finish. No session can be opened afterwards.
+     * An interrupt while waiting does not cut the close short; the interrupt flag is set again before returning.
+     */
+    @Override
+    public void close() {
+        List<GameSession> running;
+        synchronized (lock) {
+            closed = true;
+            running = getSessions();
+        }
+        for (GameSession session : running) {
+            session.stop();
+        }
+        boolean interrupted = false;
+        for (GameSession session : running) {
+            while (true) {
+                try {
+                    session.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -5,16 +5,36 @@ import com.group78.backend.GameToken;
 import com.group78.frontend.CommonMethods;
 
 import javax.swing.*;
+import javax.swing.border.Border;
 import java.awt.*;
 
 /**
  * The GameLoop class represents the main game loop for the math snake game.
- * It handles game updates, rendering, and checks for game completion conditions.
+ * It paces a GameEngine in real time and renders each tick to the Swing game board.
+ * The game rules themselves live in GameEngine, which runs without any display.
  */
-public class GameLoop implements Runnable {
+public class GameLoop implements Runnable, TickListener {
+    /** Colour of food tiles. */
+    public static final Color FOOD_COLOR = Color.decode("#3dabff");
+
+    /** Colour of empty tiles where x + y is even. */
+    public static final Color LIGHT_GRASS_COLOR = Color.decode("#9dedb2");
+
+    /** Colour of empty tiles where x + y is odd. */
+    public static final Color DARK_GRASS_COLOR = Color.decode("#61e885");
+
+    /** Border of tiles without a snake. Borders are immutable, so every label shares one. */
+    private static final Border EMPTY_BORDER = BorderFactory.createEmptyBorder();
+
+    /** Border of snake tiles. */
+    private static final Border SNAKE_BORDER = BorderFactory.createLineBorder(Color.CYAN);
+
     /** The game board. */
     private Board board;
 
+    /** The headless engine running the game rules. */
+    private GameEngine engine;
+
     /** The delay between game updates in milliseconds. */
     private int DELAY_MIL;
 
@@ -24,9 +44,12 @@ public class GameLoop implements Runnable {
     /** Flag to control the running state of the game loop. */
     private boolean run;
 
-    /** A 2D array of JLabels representing the game board in the UI. */
+    /** A 2D array of JLabels representing the game board in the UI, or null when drawing to a renderer. */
     private JLabel[][] gameBoardLabels;
 
+    /** The component the board is drawn to, or null when drawing to gameBoardLabels. */
+    private BoardRenderer renderer;
+
     /** An instance of common methods used across the game for UI updates. */
     private CommonMethods commonMethods;
 
@@ -42,6 +65,18 @@ public class GameLoop implements Runnable {
     /** Flag to indicate if the game is in developer mode. */
     private boolean isDeveloper;
 
+    /** The fixed-timestep clock pacing the engine, unless the loop runs in sleep mode. */
+    private TickClock clock;
+
+    /** Whether ticks follow the fixed-timestep clock (true) or a plain sleep between ticks (false). */
+    private boolean fixedRate;
+
+    /** Set by onTick() when the board changed and should be drawn at the end of the frame. */
+    private boolean needsRedraw;
+
+    /** Whether the next drawBoard() redraws every tile instead of only the changed ones. */
+    private boolean fullRedraw = true;
+
     /**
      * Constructs a GameLoop with the specified game board, UI labels, and common methods.
      *
@@ -59,6 +94,11 @@ public class GameLoop implements Runnable {
         this.commonMethods = commonMethods;
         this.loopNum = 0;
         this.isDeveloper = true;
+        this.board.setChangeTracking(true);
+        this.engine = new GameEngine(board);
+        this.engine.addTickListener(this);
+        this.clock = new TickClock(DELAY_MIL);
+        this.fixedRate = true;
 
     }
 
@@ -81,6 +121,36 @@ public class GameLoop implements Runnable {
         this.commonMethods = commonMethods;
         this.loopNum = 0;
         this.isDeveloper = false;
+        this.board.setChangeTracking(true);
+        this.engine = new GameEngine(board);
+        this.engine.addTickListener(this);
+        this.clock = new TickClock(DELAY_MIL);
+        this.fixedRate = true;
+    }
+
+    /**
+     * Constructs a GameLoop that draws the game board to a renderer, for developer mode.
+     *
+     * @param renderer The component the game board is drawn to.
+     * @param board The game board.
+     * @param commonMethods An instance of common methods for UI updates.
+     */
+    public GameLoop(BoardRenderer renderer, Board board, CommonMethods commonMethods) {
+        this((JLabel[][]) null, board, commonMethods);
+        this.renderer = renderer;
+    }
+
+    /**
+     * Constructs a GameLoop that draws the game board to a renderer and tracks the game token.
+     *
+     * @param renderer The component the game board is drawn to.
+     * @param board The game board.
+     * @param commonMethods An instance of common methods for UI updates.
+     * @param token The game token for tracking game statistics.
+     */
+    public GameLoop(BoardRenderer renderer, Board board, CommonMethods commonMethods, GameToken token) {
+        this((JLabel[][]) null, board, commonMethods, token);
+        this.renderer = renderer;
     }
 
     /**
@@ -107,35 +177,35 @@ public class GameLoop implements Runnable {
 
     /**
      * The core loop that updates the game state, checks for game completion, and renders the game board.
+     * In fixed-rate mode the ticks follow a TickClock; when the loop falls behind, up to the clock's
+     * catch-up limit of logic steps run before the board is drawn once.
      *
      * @throws Exception If there is an error during game update or rendering.
      */
     private void loop() throws Exception {
+        if (fixedRate) {
+            clock.start();
+        }
         while (run) {
+            int steps = 1;
             try {
-                Thread.sleep(DELAY_MIL);
+                if (fixedRate) {
+                    steps = clock.awaitTick();
+                } else {
+                    Thread.sleep(DELAY_MIL);
+                }
             } catch (InterruptedException e) {
-                e.printStackTrace();
+                EventLog.game().log(LogLevel.WARN, "GameLoop: interrupted while waiting for the next tick", e);
             }
 
-            //board.updateFood();
-            if (!board.moveSnakes(dir)) {
-                board.setUserDead(true);
-                break;
+            TickResult result = TickResult.RUNNING;
+            for (int i = 0; i < steps && result == TickResult.RUNNING; i++) {
+                result = engine.step(dir);
             }
-
-            loopNum++;
-            this.drawBoard();
-
-            if (!this.isDeveloper)
-                this.drawScoreBoard();
-
-            if (board.isEnemiesDead()) {
+            render();
+            if (result != TickResult.RUNNING) {
                 break;
             }
-
-
-
         }
         if (completionListener != null) {
             completionListener.onGameComplete(this.board.isUserDead(), this.board.isEnemiesDead()); // Assuming !run means the user has won or game over
@@ -143,58 +213,101 @@ public class GameLoop implements Runnable {
     }
 
     /**
-     * Renders the game board to the UI using the current state of the game board.
+     * Records a tick of the engine. Nothing is drawn for the tick in which the user snake dies.
+     *
+     * @param engine The engine that ticked.
+     * @param result The outcome of the tick.
      */
-    public void drawBoard() {
+    @Override
+    public void onTick(GameEngine engine, TickResult result) {
+        if (result == TickResult.USER_DEAD) {
+            return;
+        }
 
-        Tile[][] boardMap = board.getMap();
-
-        for (int j = board.getHeight() - 1; j > -1; j--) {
-            for(int i = 0; i < board.getWidth(); i++) {
-
-                switch(boardMap[i][j].getType()) {
-                    case FOOD:
-                        gameBoardLabels[i][j].setBackground(Color.decode("#3dabff"));
-                        gameBoardLabels[i][j].setBorder(BorderFactory.createEmptyBorder());
-                        break;
-                    case EMPTY:
-                        // gameBoardLabels[i][j].setBackground(Color.BLUE);
-                        gameBoardLabels[i][j].setBorder(BorderFactory.createEmptyBorder());
-                        if(i % 2 == 0) {
-                            if (j % 2 == 0)
-                                gameBoardLabels[i][j].setBackground(Color.decode("#9dedb2"));
-                            else
-                                gameBoardLabels[i][j].setBackground(Color.decode("#61e885"));
-
-                        }
-                        else {
-                            if (j % 2 == 0)
-                                gameBoardLabels[i][j].setBackground(Color.decode("#61e885"));
-                            else
-                                gameBoardLabels[i][j].setBackground(Color.decode("#9dedb2"));
-                        }
-                        break;
-                    case U_SNAKE:
-                        gameBoardLabels[i][j].setBackground(Color.YELLOW);
-                        gameBoardLabels[i][j].setBorder(BorderFactory.createLineBorder(Color.CYAN));
-                        break;
-                    case E_SNAKE:
-                        gameBoardLabels[i][j].setBackground(Color.RED);
-                        gameBoardLabels[i][j].setBorder(BorderFactory.createLineBorder(Color.CYAN));
-                        break;
-                    case OBSTACLE:
-                        gameBoardLabels[i][j].setBackground(Color.PINK);
-                        gameBoardLabels[i][j].setBorder(BorderFactory.createEmptyBorder());
-                        break;
-                    default:
-                        gameBoardLabels[i][j].setBackground(Color.GRAY);
-                        gameBoardLabels[i][j].setBorder(BorderFactory.createEmptyBorder());
-                }
+        loopNum++;
+        needsRedraw = true;
+    }
 
+    /**
+     * Draws the board and score board if any tick since the last frame changed them.
+     */
+    private void render() {
+        if (!needsRedraw) {
+            return;
+        }
+        needsRedraw = false;
+        this.drawBoard();
+
+        if (!this.isDeveloper)
+            this.drawScoreBoard();
+    }
 
+    /**
+     * Renders the game board to the UI using the current state of the game board.
+     * With a renderer, the renderer draws it. With labels, the first call draws every tile and later
+     * calls only redraw the tiles the board reports as changed.
+     */
+    public void drawBoard() {
+        if (renderer != null) {
+            renderer.drawBoard(board);
+            return;
+        }
+        if (fullRedraw) {
+            fullRedraw = false;
+            for (int j = board.getHeight() - 1; j > -1; j--) {
+                for (int i = 0; i < board.getWidth(); i++) {
+                    drawTile(i, j);
+                }
+            }
+        } else {
+            for (int n = 0; n < board.getDirtyCount(); n++) {
+                drawTile(board.getDirtyX(n), board.getDirtyY(n));
             }
         }
+        board.clearDirty();
+    }
 
+    /**
+     * Makes the next drawBoard() call redraw every tile, for instance after the labels were rebuilt.
+     */
+    public void redrawAll() {
+        fullRedraw = true;
+    }
+
+    /**
+     * Sets the colour and border of a single tile's label.
+     *
+     * @param i The x-coordinate of the tile.
+     * @param j The y-coordinate of the tile.
+     */
+    private void drawTile(int i, int j) {
+        JLabel label = gameBoardLabels[i][j];
+        switch(board.getType(i, j)) {
+            case FOOD:
+                label.setBackground(FOOD_COLOR);
+                label.setBorder(EMPTY_BORDER);
+                break;
+            case EMPTY:
+                label.setBorder(EMPTY_BORDER);
+                // checkerboard pattern
+                label.setBackground((i + j) % 2 == 0 ? LIGHT_GRASS_COLOR : DARK_GRASS_COLOR);
+                break;
+            case U_SNAKE:
+                label.setBackground(Color.YELLOW);
+                label.setBorder(SNAKE_BORDER);
+                break;
+            case E_SNAKE:
+                label.setBackground(Color.RED);
+                label.setBorder(SNAKE_BORDER);
+                break;
+            case OBSTACLE:
+                label.setBackground(Color.PINK);
+                label.setBorder(EMPTY_BORDER);
+                break;
+            default:
+                label.setBackground(Color.GRAY);
+                label.setBorder(EMPTY_BORDER);
+        }
     }
 
 
@@ -219,7 +332,26 @@ public class GameLoop implements Runnable {
      * @return The current score.
      */
     public int getScore() {
-        return (board.userFoodAte() * 50) + (board.getNumEnemiesKilled() * 50);
+        return engine.getScore();
+    }
+
+    /**
+     * Retrieves the headless engine this loop drives.
+     *
+     * @return The game engine.
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Starts recording the directions of every tick, so the game can be played back later.
+     * Has to be called before the loop starts.
+     *
+     * @return The replay the game is recorded into.
+     */
+    public Replay startRecording() {
+        return engine.startRecording();
     }
 
     /**
@@ -229,6 +361,34 @@ public class GameLoop implements Runnable {
      */
     public void setSpeed(int speed) {
         DELAY_MIL = 2100 - speed;
+        clock.setPeriodMillis(DELAY_MIL);
+    }
+
+    /**
+     * Chooses between the fixed-timestep clock and a plain sleep between ticks. Takes effect when the loop starts.
+     *
+     * @param fixedRate true to follow the fixed-timestep clock, false to sleep DELAY_MIL between ticks.
+     */
+    public void setFixedRate(boolean fixedRate) {
+        this.fixedRate = fixedRate;
+    }
+
+    /**
+     * Sets how many logic steps may run before a frame is drawn when the loop falls behind.
+     *
+     * @param maxSteps The most steps per frame, 1 to skip late ticks instead of catching up.
+     */
+    public void setMaxCatchUp(int maxSteps) {
+        clock.setMaxCatchUp(maxSteps);
+    }
+
+    /**
+     * Retrieves the clock pacing this loop, which reports late and dropped ticks.
+     *
+     * @return The fixed-timestep clock.
+     */
+    public TickClock getClock() {
+        return clock;
     }
 
     /**
@@ -0,0 +1,215 @@
+package com.group78.gamelogic;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A headless game run by a GameHost. The session owns its board, through a GameEngine, and a queue of
+ * directions from the player; its ticks are paced by its own TickClock on a virtual thread, so a host
+ * can run thousands of sessions without a platform thread each.
+ * <p>
+ * Directions may be queued from any thread. Each tick takes the next queued direction, if any, and
+ * otherwise keeps the last one, so turns pressed faster than the game ticks are played one per tick.
+ */
+public class GameSession implements Runnable {
+    /** The number of the session, unique within its host. */
+    private final long id;
+
+    /** The host running the session. */
+    private final GameHost host;
+
+    /** The engine running the session's board. */
+    private final GameEngine engine;
+
+    /** The clock pacing the session's ticks. */
+    private final TickClock clock;
+
+    /** Directions queued by the player, oldest first. */
+    private final ConcurrentLinkedQueue<Direction> inputs;
+
+    /** The direction of the last tick, kept while no new one is queued. */
+    private Direction dir;
+
+    /** Cleared by stop() to end the session before its game is over. */
+    private volatile boolean running;
+
+    /** The virtual thread running the session, once started. */
+    private volatile Thread thread;
+
+    /** How far behind its deadline the last tick started, in nanoseconds. */
+    private volatile long lastLagNanos;
+
+    /** The largest lag of any tick so far, in nanoseconds. */
+    private volatile long maxLagNanos;
+
+    /** The sum of the lag of every tick so far, in nanoseconds. */
+    private volatile long totalLagNanos;
+
+    /** The number of ticks that have been paced, for the average lag. */
+    private volatile long pacedTicks;
+
+    /**
+     * Constructs a session. Only GameHost creates sessions.
+     *
+     * @param id The number of the session.
+     * @param host The host running the session.
+     * @param board The game board.
+     * @param periodMillis The time between two ticks in milliseconds.
+     */
+    GameSession(long id, GameHost host, Board board, long periodMillis) {
+        this.id = id;
+        this.host = host;
+        this.engine = new GameEngine(board);
+        this.clock = new TickClock(periodMillis);
+        this.inputs = new ConcurrentLinkedQueue<>();
+        this.dir = Direction.UP;
+        this.running = true;
+    }
+
+    /**
+     * Runs the session until its game is over or it is stopped, then removes it from its host.
+     */
+    @Override
+    public void run() {
+        try {
+            clock.start();
+            while (running && !engine.isOver()) {
+                int steps = clock.awaitTick();
+                recordLag(clock.getLastLatenessNanos());
+                for (int i = 0; i < steps && !engine.isOver(); i++) {
+                    Direction next = inputs.poll();
+                    if (next != null) {
+                        dir = next;
+                    }
+                    engine.step(dir);
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopped while waiting for the next tick
+        } catch (RuntimeException e) {
+            EventLog.game().log(LogLevel.ERROR, "GameSession: session ended by an error", e);
+        } finally {
+            running = false;
+            host.remove(this);
+        }
+    }
+
+    /**
+     * Adds the lag of a tick to the session's statistics. Only the session's thread writes them.
+     *
+     * @param lagNanos How far behind its deadline the tick started, in nanoseconds.
+     */
+    private void recordLag(long lagNanos) {
+        lastLagNanos = lagNanos;
+        if (lagNanos > maxLagNanos) {
+            maxLagNanos = lagNanos;
+        }
+        totalLagNanos += lagNanos;
+        pacedTicks++;
+    }
+
+    /**
+     * Queues a direction for the user snake, played on the first tick that has not taken a direction yet.
+     *
+     * @param dir The direction to move in.
+     */
+    public void input(Direction dir) {
+        inputs.add(dir);
+    }
+
+    /**
+     * Ends the session before its game is over. The session's thread stops at its next tick.
+     */
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    /**
+     * Waits until the session has ended.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void await() throws InterruptedException {
+        Thread current = thread;
+        if (current != null) {
+            current.join();
+        }
+    }
+
+    /**
+     * Records the thread running the session. Called by the host before the thread starts.
+     *
+     * @param thread The session's virtual thread.
+     */
+    void setThread(Thread thread) {
+        this.thread = thread;
+    }
+
+    /**
+     * Retrieves the number of the session.
+     *
+     * @return The session number, unique within its host.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Retrieves the engine running the session. Its board should only be read once the session has ended,
+     * or from a TickListener, which runs on the session's thread.
+     *
+     * @return The session's game engine.
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Checks whether the session is still running.
+     *
+     * @return true until the game is over or the session is stopped.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Retrieves how far behind its deadline the last tick started.
+     *
+     * @return The lag of the last tick in nanoseconds.
+     */
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    /**
+     * Retrieves the largest lag of any tick so far.
+     *
+     * @return The largest tick lag in nanoseconds.
+     */
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    /**
+     * Retrieves the average lag of the session's ticks.
+     *
+     * @return The average tick lag in nanoseconds, 0 before the first tick.
+     */
+    public long getAverageLagNanos() {
+        long ticks = pacedTicks;
+        return ticks == 0 ? 0 : totalLagNanos / ticks;
+    }
+
+    /**
+     * Retrieves the number of ticks that were due while an earlier tick was still running.
+     *
+     * @return The number of late ticks so far.
+     */
+    public long getLateTicks() {
+        return clock.getLateTicks();
+    }
+}
@@ -0,0 +1,21 @@
+package com.group78.gamelogic;
+
+/**
+ * The severity of an EventLog event. An event is recorded when its level is at or above the log's level.
+ */
+public enum LogLevel {
+    /** Detail of the game's decisions, only of use when chasing a bug. */
+    DEBUG,
+
+    /** Normal game events, such as the user snake leaving the board. */
+    INFO,
+
+    /** Something went wrong, but the game carries on or ends cleanly. */
+    WARN,
+
+    /** Something went wrong that should not happen. */
+    ERROR,
+
+    /** Records nothing, when used as the log's level. */
+    OFF
+}
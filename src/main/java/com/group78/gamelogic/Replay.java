@@ -0,0 +1,285 @@
+package com.group78.gamelogic;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The Replay class holds a recorded game: the seed and parameters of its board and the direction given
+ * to every tick. All randomness on a board comes from its seed, so replaying the directions on a board
+ * built from the same parameters plays out the exact same game.
+ * <p>
+ * The binary format is a small header followed by the directions, run-length encoded. Each run of
+ * equal directions is one unsigned varint holding (length &lt;&lt; 2) | direction, so a run of up to
+ * 31 ticks costs a single byte.
+ */
+public class Replay {
+    /** Marks the start of a replay file, "SNKR". */
+    private static final int MAGIC = 0x534E4B52;
+
+    /** The version of the binary format. */
+    private static final int VERSION = 1;
+
+    /** The directions a run can hold, indexed by the 2-bit code written to the stream. */
+    private static final Direction[] DIRECTIONS = {Direction.RIGHT, Direction.LEFT, Direction.UP, Direction.DOWN};
+
+    /** Whether the board was built from explicit dimensions rather than from a level. */
+    private boolean customLayout;
+
+    /** The level the board was built for, when it is not a custom layout. */
+    private int level;
+
+    /** The seed of the board's randomness. */
+    private long seed;
+
+    /** The custom board's width, height, foods, obstacles, enemy snakes and user snake column. */
+    private int width, height, numFoods, numbObstacles, numbEnemySnakes, snakeStartingX;
+
+    /** The 2-bit direction code of each run. */
+    private byte[] runDirs;
+
+    /** The number of ticks in each run. */
+    private int[] runLengths;
+
+    /** The number of runs. */
+    private int runCount;
+
+    /** The number of ticks recorded. */
+    private long tickCount;
+
+    /**
+     * Constructs an empty replay of a game on the given board, which must not have been moved yet.
+     *
+     * @param board The board the game starts from.
+     */
+    public Replay(Board board) {
+        this.customLayout = board.isCustomLayout();
+        this.level = board.getLevel();
+        this.seed = board.getSeed();
+        if (customLayout) {
+            this.width = board.getWidth();
+            this.height = board.getHeight();
+            this.numFoods = board.getNumFoods();
+            this.numbObstacles = board.getNumbObstacles();
+            this.numbEnemySnakes = board.getNumbEnemySnakes();
+            this.snakeStartingX = board.getSnakeStartingX();
+        }
+        this.runDirs = new byte[16];
+        this.runLengths = new int[16];
+    }
+
+    /**
+     * Constructs an empty replay to be filled by read().
+     */
+    private Replay() {
+    }
+
+    /**
+     * Records the direction of the next tick.
+     *
+     * @param dir The direction passed to Board.moveSnakes for the tick.
+     * @throws IllegalArgumentException If the direction is NA, which the user snake is never given.
+     */
+    public void append(Direction dir) {
+        byte code = code(dir);
+        if (runCount > 0 && runDirs[runCount - 1] == code && runLengths[runCount - 1] < Integer.MAX_VALUE) {
+            runLengths[runCount - 1]++;
+        } else {
+            if (runCount == runDirs.length) {
+                runDirs = Arrays.copyOf(runDirs, runCount * 2);
+                runLengths = Arrays.copyOf(runLengths, runCount * 2);
+            }
+            runDirs[runCount] = code;
+            runLengths[runCount] = 1;
+            runCount++;
+        }
+        tickCount++;
+    }
+
+    /**
+     * Builds a fresh board identical to the one the recorded game started on.
+     *
+     * @return The starting board.
+     * @throws Exception If there is an error setting up the board.
+     */
+    public Board newBoard() throws Exception {
+        if (customLayout) {
+            return new Board(width, height, numFoods, numbObstacles, numbEnemySnakes, snakeStartingX, seed);
+        }
+        return new Board(level, seed);
+    }
+
+    /**
+     * Writes the replay in its binary format. The stream is not closed.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If writing fails.
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeBoolean(customLayout);
+        data.writeLong(seed);
+        if (customLayout) {
+            data.writeInt(width);
+            data.writeInt(height);
+            data.writeInt(numFoods);
+            data.writeInt(numbObstacles);
+            data.writeInt(numbEnemySnakes);
+            data.writeInt(snakeStartingX);
+        } else {
+            data.writeInt(level);
+        }
+        writeVarint(data, runCount);
+        for (int i = 0; i < runCount; i++) {
+            writeVarint(data, ((long) runLengths[i] << 2) | runDirs[i]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a replay written by write(). The stream is not closed.
+     *
+     * @param in The stream to read from.
+     * @return The replay.
+     * @throws IOException If reading fails or the stream does not hold a replay.
+     */
+    public static Replay read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Replay: not a replay file");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Replay: unsupported version " + version);
+        }
+
+        Replay replay = new Replay();
+        replay.customLayout = data.readBoolean();
+        replay.seed = data.readLong();
+        if (replay.customLayout) {
+            replay.width = data.readInt();
+            replay.height = data.readInt();
+            replay.numFoods = data.readInt();
+            replay.numbObstacles = data.readInt();
+            replay.numbEnemySnakes = data.readInt();
+            replay.snakeStartingX = data.readInt();
+        } else {
+            replay.level = data.readInt();
+        }
+
+        long runs = readVarint(data);
+        if (runs > Integer.MAX_VALUE - 8) {
+            throw new IOException("Replay: too many runs " + runs);
+        }
+        // the arrays grow as runs arrive, so a corrupt count cannot allocate more than the file holds
+        replay.runDirs = new byte[16];
+        replay.runLengths = new int[16];
+        for (int i = 0; i < runs; i++) {
+            long run = readVarint(data);
+            long length = run >>> 2;
+            if (length == 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Replay: bad run length " + length);
+            }
+            if (i == replay.runDirs.length) {
+                replay.runDirs = Arrays.copyOf(replay.runDirs, i * 2);
+                replay.runLengths = Arrays.copyOf(replay.runLengths, i * 2);
+            }
+            replay.runDirs[i] = (byte) (run & 3);
+            replay.runLengths[i] = (int) length;
+            replay.runCount++;
+            replay.tickCount += length;
+        }
+        return replay;
+    }
+
+    /**
+     * Retrieves the number of ticks recorded.
+     *
+     * @return The tick count.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Retrieves the seed of the recorded board.
+     *
+     * @return The board's seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the number of runs of equal directions.
+     *
+     * @return The run count.
+     */
+    int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Retrieves the direction of a run.
+     *
+     * @param run The run index.
+     * @return The direction given for every tick of the run.
+     */
+    Direction getRunDirection(int run) {
+        return DIRECTIONS[runDirs[run]];
+    }
+
+    /**
+     * Retrieves the number of ticks in a run.
+     *
+     * @param run The run index.
+     * @return The length of the run.
+     */
+    int getRunLength(int run) {
+        return runLengths[run];
+    }
+
+    private static byte code(Direction dir) {
+        switch (dir) {
+            case RIGHT:
+                return 0;
+            case LEFT:
+                return 1;
+            case UP:
+                return 2;
+            case DOWN:
+                return 3;
+            default:
+                throw new IllegalArgumentException("Replay: cannot record direction " + dir);
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Replay: truncated");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Replay: malformed varint");
+    }
+}
@@ -0,0 +1,104 @@
+package com.group78.gamelogic;
+
+/**
+ * The ReplayPlayer class plays a recorded game back on a fresh board.
+ * playToEnd() runs headless as fast as the CPU allows, for reproducing bugs and regression tests.
+ * play() paces the ticks with a TickClock and draws each frame to a renderer, at any speed.
+ */
+public class ReplayPlayer {
+    /** The replay being played. */
+    private Replay replay;
+
+    /** The engine running the rebuilt board. */
+    private GameEngine engine;
+
+    /** The run the next tick belongs to. */
+    private int run;
+
+    /** The number of ticks already played from the current run. */
+    private int played;
+
+    /**
+     * Constructs a player for a replay, rebuilding the board the game started on.
+     *
+     * @param replay The recorded game.
+     * @throws Exception If there is an error setting up the board.
+     */
+    public ReplayPlayer(Replay replay) throws Exception {
+        this.replay = replay;
+        this.engine = new GameEngine(replay.newBoard());
+        this.run = 0;
+        this.played = 0;
+    }
+
+    /**
+     * Checks whether there are ticks left to play.
+     *
+     * @return true while the game is running and recorded ticks remain.
+     */
+    public boolean hasNext() {
+        return run < replay.getRunCount() && !engine.isOver();
+    }
+
+    /**
+     * Plays the next recorded tick.
+     *
+     * @return The outcome of the tick, or the final result once nothing is left to play.
+     */
+    public TickResult step() {
+        if (!hasNext()) {
+            return engine.getLastResult();
+        }
+        TickResult result = engine.step(replay.getRunDirection(run));
+        if (++played == replay.getRunLength(run)) {
+            run++;
+            played = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Plays every remaining tick without pausing.
+     *
+     * @return The outcome of the last tick played.
+     */
+    public TickResult playToEnd() {
+        TickResult result = engine.getLastResult();
+        while (hasNext()) {
+            result = step();
+        }
+        return result;
+    }
+
+    /**
+     * Plays every remaining tick at the pace of a clock, drawing the board after each frame.
+     *
+     * @param clock The clock setting the playback speed. It is started by this call.
+     * @param renderer The renderer to draw to, or null to play without drawing.
+     * @return The outcome of the last tick played.
+     * @throws InterruptedException If the thread is interrupted while waiting for a tick.
+     */
+    public TickResult play(TickClock clock, BoardRenderer renderer) throws InterruptedException {
+        TickResult result = engine.getLastResult();
+        clock.start();
+        while (hasNext()) {
+            int steps = clock.awaitTick();
+            for (int i = 0; i < steps && hasNext(); i++) {
+                result = step();
+            }
+            if (renderer != null) {
+                renderer.drawBoard(engine.getBoard());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the engine running the replay, to subscribe listeners or inspect the board.
+     *
+     * @return The game engine.
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+}
@@ -0,0 +1,135 @@
+package com.group78.gamelogic;
+
+/**
+ * The body of a snake, stored as a growable ring buffer of packed cell indices (see Board).
+ * The head is the first cell and the tail the last. Moving a snake adds a cell at the head and
+ * removes one at the tail, which never allocates once the buffer is large enough for the snake.
+ */
+class SnakeBody {
+    /** The ring buffer of cell indices. Its length is always a power of two. */
+    private int[] cells;
+
+    /** The slot of the head cell in the ring buffer. */
+    private int head;
+
+    /** The number of cells in the body. */
+    private int size;
+
+    /**
+     * Constructs an empty body with room for at least the given number of cells.
+     *
+     * @param capacity The initial number of cells the body can hold before growing.
+     */
+    SnakeBody(int capacity) {
+        this.cells = new int[Integer.highestOneBit(Math.max(capacity, 4) - 1) << 1];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Adds a cell in front of the head, making it the new head.
+     *
+     * @param cell The index of the new head cell.
+     */
+    void addFirst(int cell) {
+        if (size == cells.length) {
+            grow();
+        }
+        head = (head - 1) & (cells.length - 1);
+        cells[head] = cell;
+        size++;
+    }
+
+    /**
+     * Adds a cell after the tail, making it the new tail.
+     *
+     * @param cell The index of the new tail cell.
+     */
+    void addLast(int cell) {
+        if (size == cells.length) {
+            grow();
+        }
+        cells[(head + size) & (cells.length - 1)] = cell;
+        size++;
+    }
+
+    /**
+     * Removes the head cell.
+     *
+     * @return The index of the removed cell.
+     */
+    int removeFirst() {
+        int cell = cells[head];
+        head = (head + 1) & (cells.length - 1);
+        size--;
+        return cell;
+    }
+
+    /**
+     * Removes the tail cell.
+     *
+     * @return The index of the removed cell.
+     */
+    int removeLast() {
+        size--;
+        return cells[(head + size) & (cells.length - 1)];
+    }
+
+    /**
+     * Returns the head cell.
+     *
+     * @return The index of the head cell.
+     */
+    int getFirst() {
+        return cells[head];
+    }
+
+    /**
+     * Returns the tail cell.
+     *
+     * @return The index of the tail cell.
+     */
+    int getLast() {
+        return cells[(head + size - 1) & (cells.length - 1)];
+    }
+
+    /**
+     * Returns a cell of the body, counting from the head.
+     *
+     * @param i The position of the cell, 0 being the head.
+     * @return The index of the cell.
+     */
+    int get(int i) {
+        return cells[(head + i) & (cells.length - 1)];
+    }
+
+    /**
+     * Returns the number of cells in the body.
+     *
+     * @return The length of the snake.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the body has no cells left.
+     *
+     * @return true if the body is empty.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Doubles the ring buffer, unrolling it so the head is at slot 0.
+     */
+    private void grow() {
+        int[] grown = new int[cells.length << 1];
+        for (int i = 0; i < size; i++) {
+            grown[i] = get(i);
+        }
+        cells = grown;
+        head = 0;
+    }
+}
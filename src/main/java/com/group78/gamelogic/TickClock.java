@@ -0,0 +1,149 @@
+package com.group78.gamelogic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fixed-timestep clock for the game loop. Tick deadlines are kept on a System.nanoTime() timeline,
+ * each one period after the previous deadline, so the time spent moving and rendering does not
+ * push later ticks back. When the loop falls behind, awaitTick() reports how many logic steps are due
+ * so the caller can catch up before rendering again.
+ */
+public class TickClock {
+    /** The time between two ticks, in nanoseconds. */
+    private volatile long periodNanos;
+
+    /** The thread waiting in awaitTick(), woken by setPeriodMillis() so it waits for the new deadline. */
+    private volatile Thread waiter;
+
+    /** The most logic steps awaitTick() hands out at once. 1 disables catching up. */
+    private int maxCatchUp;
+
+    /** The deadline of the last tick handed out. */
+    private long lastDeadline;
+
+    /** Whether start() has been called. */
+    private boolean started;
+
+    /** The number of ticks whose deadline passed before the previous tick was handed out. */
+    private long lateTicks;
+
+    /** The number of late ticks skipped because more than maxCatchUp steps were due. */
+    private long droppedTicks;
+
+    /** How far behind its deadline the last tick was handed out, in nanoseconds. */
+    private long lastLatenessNanos;
+
+    /**
+     * Constructs a clock ticking at a fixed period, without catching up.
+     *
+     * @param periodMillis The time between two ticks in milliseconds.
+     */
+    public TickClock(long periodMillis) {
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        this.maxCatchUp = 1;
+    }
+
+    /**
+     * Starts the timeline. The first tick is due one period from now.
+     */
+    public void start() {
+        this.lastDeadline = System.nanoTime();
+        this.started = true;
+    }
+
+    /**
+     * Waits until the next tick is due, parking the thread until the deadline rather than polling.
+     *
+     * @return The number of logic steps due, at least 1 and at most maxCatchUp.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public int awaitTick() throws InterruptedException {
+        if (!started) {
+            start();
+        }
+
+        // published before the deadline is read, so a period change after this point wakes the park
+        waiter = Thread.currentThread();
+        long now;
+        try {
+            now = System.nanoTime();
+            long wait = lastDeadline + periodNanos - now;
+            while (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                now = System.nanoTime();
+                wait = lastDeadline + periodNanos - now;
+            }
+        } finally {
+            waiter = null;
+        }
+
+        long period = periodNanos;
+        long deadline = lastDeadline + period;
+        long lateness = now - deadline;
+        long due = 1 + lateness / period;
+        lastLatenessNanos = lateness;
+        lateTicks += due - 1;
+
+        if (due > maxCatchUp) {
+            // too far behind: run what we may and restart the timeline from now
+            droppedTicks += due - maxCatchUp;
+            lastDeadline = now;
+            return maxCatchUp;
+        }
+        lastDeadline = deadline + (due - 1) * period;
+        return (int) due;
+    }
+
+    /**
+     * Changes the time between two ticks. The next deadline moves with it, waking a thread waiting for the old one.
+     *
+     * @param periodMillis The new time between two ticks in milliseconds.
+     */
+    public void setPeriodMillis(long periodMillis) {
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        Thread current = waiter;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    /**
+     * Sets how many logic steps may run back to back when the loop falls behind.
+     *
+     * @param maxCatchUp The most steps per awaitTick(), 1 to never catch up.
+     */
+    public void setMaxCatchUp(int maxCatchUp) {
+        this.maxCatchUp = Math.max(1, maxCatchUp);
+    }
+
+    /**
+     * Retrieves the number of ticks whose deadline passed while an earlier tick was still running.
+     *
+     * @return The number of late ticks so far.
+     */
+    public long getLateTicks() {
+        return lateTicks;
+    }
+
+    /**
+     * Retrieves the number of late ticks that were skipped instead of caught up.
+     *
+     * @return The number of dropped ticks so far.
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    /**
+     * Retrieves how far behind its deadline the last tick started.
+     *
+     * @return The lateness of the last tick in nanoseconds.
+     */
+    public long getLastLatenessNanos() {
+        return lastLatenessNanos;
+    }
+}
@@ -0,0 +1,15 @@
+package com.group78.gamelogic;
+
+/**
+ * The TickListener interface defines a subscriber to the ticks of a GameEngine.
+ * Renderers and recorders implement it to follow the game without driving it.
+ */
+public interface TickListener {
+    /**
+     * Invoked after every tick of the engine, on the thread that called step().
+     *
+     * @param engine The engine that ticked.
+     * @param result The outcome of the tick.
+     */
+    void onTick(GameEngine engine, TickResult result);
+}
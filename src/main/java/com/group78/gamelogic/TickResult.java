@@ -0,0 +1,15 @@
+package com.group78.gamelogic;
+
+/**
+ * The outcome of a single game tick, as returned by GameEngine.step().
+ */
+public enum TickResult {
+    /** All snakes moved and the game goes on. */
+    RUNNING,
+
+    /** The user snake crashed, the game is lost. */
+    USER_DEAD,
+
+    /** Every enemy snake is dead, the game is won. */
+    ENEMIES_DEAD
+}
@@ -3,11 +3,17 @@ package com.group78.gamelogic;
 /**
  * Represents a single tile on the game board in a snake game.
  * A tile can hold different types of entities, such as a part of the snake, food, or an obstacle.
+ * <p>
+ * Tiles handed out by a Board are views: their type is read from and written to the board's
+ * cell storage. Tiles built with the public constructor are standalone and hold their own type.
  */
 public class Tile {
-    /** The type of entity currently occupying this tile. */
+    /** The type of entity currently occupying this tile, used only by standalone tiles. */
     private TileType type;
 
+    /** The board this tile is a view of, or null for a standalone tile. */
+    private final Board board;
+
     /** The x-coordinate of this tile on the game board. */
     private int x;
 
@@ -25,6 +31,20 @@ public class Tile {
         this.x = x;
         this.y = y;
         this.type = type;
+        this.board = null;
+    }
+
+    /**
+     * Constructs a view of the tile at the specified coordinates of a board.
+     *
+     * @param board The board holding the tile's type.
+     * @param x The x-coordinate of this tile on the game board.
+     * @param y The y-coordinate of this tile on the game board.
+     */
+    Tile(Board board, int x, int y) {
+        this.x = x;
+        this.y = y;
+        this.board = board;
     }
 
     /**
@@ -33,9 +53,23 @@ public class Tile {
      * @return The current type of this tile.
      */
     public TileType getType() {
+        if (board != null)
+            return board.getType(x, y);
         return type;
     }
 
+    /**
+     * Stores the type of this tile, writing through to the board for board views.
+     *
+     * @param type The new type of this tile.
+     */
+    private void setType(TileType type) {
+        if (board != null)
+            board.setType(x, y, type);
+        else
+            this.type = type;
+    }
+
     /**
      * Returns the x-coordinate of this tile on the game board.
      *
@@ -53,8 +87,8 @@ public class Tile {
      *   Setters will set value if and only if the Tile is currently empty.
      **/
     public void setFood() throws Exception {
-        if (this.type == TileType.EMPTY)
-            this.type = TileType.FOOD;
+        if (getType() == TileType.EMPTY)
+            setType(TileType.FOOD);
         else
             throw new Exception("Tile: Invalid FOOD placement at (" + this.x + ", " + this.y + ")");
     }
@@ -65,10 +99,10 @@ public class Tile {
      * @throws Exception If attempting to place the user snake on an invalid tile.
      */
     public void setUserSnake() throws Exception{
-        if (this.type == TileType.EMPTY || this.type == TileType.FOOD)
-            this.type = TileType.U_SNAKE;
+        if (getType() == TileType.EMPTY || getType() == TileType.FOOD)
+            setType(TileType.U_SNAKE);
         else {
-            System.out.println(this);
+            EventLog.game().log(LogLevel.DEBUG, "Tile: USER snake placed on a taken tile at ({}, {})", x, y);
             throw new Exception("Tile: Invalid USER snake placement at (" + this.x + ", " + this.y + ")");
         }
     }
@@ -79,8 +113,8 @@ public class Tile {
      * @throws Exception If attempting to place the enemy snake on an invalid tile.
      */
     public void setEnemySnake() throws Exception {
-        if (this.type == TileType.EMPTY || this.type == TileType.FOOD)
-            this.type = TileType.E_SNAKE;
+        if (getType() == TileType.EMPTY || getType() == TileType.FOOD)
+            setType(TileType.E_SNAKE);
         else
             throw new Exception("Tile: Invalid ENEMY snake placement at (" + this.x + ", " + this.y + ")");
     }
@@ -91,8 +125,8 @@ public class Tile {
      * @throws Exception If attempting to place an obstacle on a non-empty tile.
      */
     public void setObstacle() throws Exception{
-        if (this.type == TileType.EMPTY)
-            this.type = TileType.OBSTACLE;
+        if (getType() == TileType.EMPTY)
+            setType(TileType.OBSTACLE);
         else
             throw new Exception("Tile: Invalid OBSTACLE  placement at (" + this.x + ", " + this.y + ")");
     }
@@ -101,7 +135,36 @@ public class Tile {
      * Resets the tile's type to EMPTY, indicating it is no longer occupied.
      */
     public void clear(){
-        this.type=TileType.EMPTY;
+        setType(TileType.EMPTY);
+    }
+
+    /**
+     * Two board tiles are equal when they are views of the same position on the same board.
+     * Standalone tiles are only equal to themselves.
+     *
+     * @param o The object to compare with.
+     * @return true if both refer to the same tile.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (board == null || !(o instanceof Tile))
+            return false;
+        Tile other = (Tile) o;
+        return board == other.board && x == other.x && y == other.y;
+    }
+
+    /**
+     * Returns a hash code consistent with equals().
+     *
+     * @return The hash code of this tile.
+     */
+    @Override
+    public int hashCode() {
+        if (board == null)
+            return System.identityHashCode(this);
+        return 31 * x + y;
     }
 
     /**
@@ -112,7 +175,7 @@ public class Tile {
     @Override
     public String toString() {
         return "Tile{" +
-                "type=" + type +
+                "type=" + getType() +
                 ", x=" + x +
                 ", y=" + y +
                 '}';
@@ -125,7 +188,7 @@ public class Tile {
      * @throws Exception If the tile type is unrecognized.
      */
     public String charRep() throws Exception{
-        switch (this.type) {
+        switch (getType()) {
             case FOOD -> {
                 return "f";
             }
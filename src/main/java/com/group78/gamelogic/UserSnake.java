@@ -7,14 +7,8 @@ import java.util.LinkedList;
  * It manages the snake's movement, growth, and checks for the validity of each snake move.
  */
 public class UserSnake {
-    /** The first Tile of the snake which represents the head of the linked list that represents the snake. */
-    private Tile head;
-
-    /** The last Tile of the snake which represents the tail of the linked list that represents the snake. */
-    private Tile tail;
-
-    /** A list of Tiles currently occupied by the snake represented in a linked list data structure. */
-    private LinkedList<Tile> currentTiles;
+    /** The cells occupied by the snake, from head to tail, stored in a ring buffer of cell indices. */
+    private SnakeBody body;
 
     /** The game board on which the snake moves. */
     private Board board;
@@ -26,14 +20,16 @@ public class UserSnake {
      * Constructs a new UserSnake object.
      *
      * @param board The game board on which the snake exists.
-     * @param startingTiles The initial tiles occupied by the snake represented in a linked list data structure.
+     * @param startingTiles The initial tiles occupied by the snake, from head to tail.
      * @param startingDir The initial direction of the snake's movement.
      */
     public UserSnake(Board board, LinkedList<Tile> startingTiles, Direction startingDir) {
         this.board = board;
-        this.currentTiles = startingTiles;
-        this.head = this.currentTiles.getFirst();
-        this.tail = this.currentTiles.getLast();
+        this.body = new SnakeBody(startingTiles.size());
+        for (Tile tile : startingTiles) {
+            this.body.addLast(board.index(tile.getTileX(), tile.getTileY()));
+        }
+        board.markHead(this.body.getFirst());
         this.dir = startingDir;
     }
 
@@ -61,12 +57,13 @@ public class UserSnake {
      * Determines the new head position of the snake based on the proposed direction.
      *
      * @param dir The direction in which the snake intends to move.
-     * @return The new head tile if the position is valid, otherwise null.
+     * @return The cell index of the new head if the position is valid, otherwise -1.
      * @throws Exception If an invalid direction is provided.
      */
-    private Tile getNewHead(Direction dir) throws Exception{
-        int newX = this.head.getTileX();
-        int newY = this.head.getTileY();
+    private int getNewHead(Direction dir) throws Exception{
+        int head = this.body.getFirst();
+        int newX = this.board.cellX(head);
+        int newY = this.board.cellY(head);
 
         switch (dir) {
             case UP -> newY++;
@@ -76,9 +73,9 @@ public class UserSnake {
             default -> throw new Exception("Snake: Invalid Direction ");
         }
         if (!this.board.isValidPos(newX, newY))
-            return null;
+            return -1;
 
-        return this.board.getMap()[newX][newY];
+        return this.board.index(newX, newY);
     }
 
     /**
@@ -88,24 +85,24 @@ public class UserSnake {
      * @throws Exception If there's an issue determining the new head position.
      */
     public boolean move() throws Exception {
-        Tile newHead = getNewHead(this.dir);
+        int newHead = getNewHead(this.dir);
 
-        if (newHead == null) {
-            System.out.println("new head is null");
+        if (newHead < 0) {
+            EventLog.game().log(LogLevel.INFO, "UserSnake: left the board at ({}, {})",
+                    this.board.cellX(this.body.getFirst()), this.board.cellY(this.body.getFirst()));
             this.board.setUserDead(true);
             return false;
         }
 
-        if (newHead.getType() != TileType.FOOD) {
-            this.tail.clear();
-            this.currentTiles.removeLast();
-            this.tail = currentTiles.getLast();
+        if (this.board.typeAt(newHead) != TileType.FOOD) {
+            this.board.clearCell(this.body.removeLast());
         }
 
-        newHead.setUserSnake();
+        this.board.occupy(newHead, TileType.U_SNAKE);
 
-        this.head = newHead;
-        this.currentTiles.addFirst(newHead);
+        this.board.unmarkHead(this.body.getFirst());
+        this.body.addFirst(newHead);
+        this.board.markHead(newHead);
 
 
         return true;
@@ -132,7 +129,7 @@ public class UserSnake {
      * @return The number of tiles occupied by the snake.
      */
     public int getSnakeSize() {
-        return this.currentTiles.size();
+        return this.body.size();
     }
 
     /**
@@ -141,6 +138,6 @@ public class UserSnake {
      * @return The tile object that represents the head of the snake.
      */
     public Tile getHead() {
-        return head;
+        return board.tileAt(body.getFirst());
     }
 }
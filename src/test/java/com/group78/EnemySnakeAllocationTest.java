@@ -0,0 +1,61 @@
+package com.group78;
+
+import com.group78.gamelogic.Board;
+import com.group78.gamelogic.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnemySnakeAllocationTest {
+
+    /** Ticks played before measuring, so class loading and first-use growth are not counted. */
+    private static final int WARMUP_TICKS = 2_000;
+
+    /** Ticks measured. */
+    private static final int TICKS = 100_000;
+
+    /** The user snake circles an 8x8 square so games last long: 8 moves in each direction. */
+    private static final Direction[] LOOP = {Direction.UP, Direction.RIGHT, Direction.DOWN, Direction.LEFT};
+
+    /**
+     * A tick of enemy snakes allocates nothing once the board is warm. Only ticks that keep the game going
+     * are measured; a finished game is replaced by a new board outside the measured code.
+     *
+     * @throws Exception
+     */
+    @Test
+    void enemyTickDoesNotAllocate() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        long seed = 1;
+        Board board = new Board(48, 48, 30, 0, 6, 24, seed++);
+        int tick = 0;
+        long allocated = 0;
+        int measured = 0;
+        for (int n = 0; n < WARMUP_TICKS + TICKS; n++) {
+            Direction dir = LOOP[(tick++ / 8) % LOOP.length];
+            long before = threads.getCurrentThreadAllocatedBytes();
+            boolean alive = board.moveSnakes(dir);
+            long after = threads.getCurrentThreadAllocatedBytes();
+            board.clearDirty();
+
+            if (alive && !board.isEnemiesDead()) {
+                if (n >= WARMUP_TICKS) {
+                    allocated += after - before;
+                    measured++;
+                }
+            } else {
+                board = new Board(48, 48, 30, 0, 6, 24, seed++);
+                tick = 0;
+            }
+        }
+
+        assertTrue(measured > TICKS / 2, "too few ticks kept the game going: " + measured);
+        // growing a snake body or the dirty list is amortized, anything per tick shows up as many bytes
+        assertTrue(allocated / (double) measured < 8, allocated + " bytes over " + measured + " ticks");
+    }
+}
@@ -0,0 +1,96 @@
+package com.group78;
+
+import com.group78.gamelogic.EventLog;
+import com.group78.gamelogic.LogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+
+    /**
+     * Events at or above the level reach the file, formatted by the background thread; lower ones do not.
+     *
+     * @throws Exception
+     */
+    @Test
+    void writesEnabledLevels() throws Exception {
+        Path file = Files.createTempFile("game", ".log");
+        EventLog log = new EventLog(file, LogLevel.INFO, 16);
+        assertFalse(log.isEnabled(LogLevel.DEBUG));
+        assertTrue(log.isEnabled(LogLevel.WARN));
+
+        log.log(LogLevel.DEBUG, "hidden");
+        log.log(LogLevel.INFO, "UserSnake: left the board at ({}, {})", 3, -1);
+        log.log(LogLevel.WARN, "Board: tick ended the game", new Exception("boom"));
+        log.flush();
+        log.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("INFO"));
+        assertTrue(lines.get(0).endsWith("UserSnake: left the board at (3, -1)"));
+        assertTrue(lines.get(1).endsWith("Board: tick ended the game: java.lang.Exception: boom"));
+        Files.delete(file);
+    }
+
+    /**
+     * A full ring drops events instead of blocking, and every event is either written or counted as dropped.
+     *
+     * @throws Exception
+     */
+    @Test
+    void fullRingDropsInsteadOfBlocking() throws Exception {
+        Path file = Files.createTempFile("game", ".log");
+        EventLog log = new EventLog(file, LogLevel.DEBUG, 4);
+        for (int i = 0; i < 10_000; i++) {
+            log.log(LogLevel.DEBUG, "event {}", i, 0);
+        }
+        log.close();
+
+        long written = Files.readAllLines(file).size();
+        assertEquals(10_000, written + log.getDroppedCount());
+        Files.delete(file);
+    }
+
+    /**
+     * An interrupted close still writes every event, and leaves the interrupt flag set.
+     *
+     * @throws Exception
+     */
+    @Test
+    void closeKeepsInterrupt() throws Exception {
+        Path file = Files.createTempFile("game", ".log");
+        EventLog log = new EventLog(file, LogLevel.INFO, 16);
+        log.log(LogLevel.INFO, "GameHost: closing");
+        Thread.currentThread().interrupt();
+        log.close();
+        assertTrue(Thread.interrupted());
+
+        assertEquals(1, Files.readAllLines(file).size());
+        Files.delete(file);
+    }
+
+    /**
+     * Events recorded after close are counted as dropped.
+     *
+     * @throws Exception
+     */
+    @Test
+    void countsEventsAfterClose() throws Exception {
+        Path file = Files.createTempFile("game", ".log");
+        EventLog log = new EventLog(file, LogLevel.INFO, 16);
+        log.log(LogLevel.INFO, "GameHost: opened");
+        log.close();
+        log.log(LogLevel.INFO, "GameHost: opened");
+        log.log(LogLevel.WARN, "GameHost: closed");
+
+        assertEquals(1, Files.readAllLines(file).size());
+        assertEquals(2, log.getDroppedCount());
+        Files.delete(file);
+    }
+}
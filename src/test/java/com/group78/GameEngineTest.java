@@ -0,0 +1,128 @@
+package com.group78;
+
+import com.group78.gamelogic.Board;
+import com.group78.gamelogic.Direction;
+import com.group78.gamelogic.GameEngine;
+import com.group78.gamelogic.Replay;
+import com.group78.gamelogic.ReplayPlayer;
+import com.group78.gamelogic.TickResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEngineTest {
+
+    /**
+     * The user snake fills a 1x5 board, so the first move up leaves the board.
+     *
+     * @throws Exception
+     */
+    @Test
+    void userLeavesBoard() throws Exception {
+        GameEngine engine = new GameEngine(new Board(1, 5, 0, 0, 0, 0));
+        int[] ticks = {0};
+        engine.addTickListener((e, result) -> ticks[0]++);
+
+        assertEquals(TickResult.USER_DEAD, engine.step(Direction.UP));
+        assertTrue(engine.isOver());
+        assertTrue(engine.getBoard().isUserDead());
+        assertEquals(1, ticks[0]);
+    }
+
+    /**
+     * A board without enemies is won on the first tick, and finished games do not tick any more.
+     *
+     * @throws Exception
+     */
+    @Test
+    void noEnemiesWins() throws Exception {
+        GameEngine engine = new GameEngine(new Board(8, 8, 0, 0, 0, 3));
+        assertEquals(TickResult.ENEMIES_DEAD, engine.step(Direction.UP));
+        assertEquals(TickResult.ENEMIES_DEAD, engine.step(Direction.UP));
+        assertEquals(1, engine.getTickCount());
+        assertEquals(0, engine.getScore());
+    }
+
+    /**
+     * Food eaten during a tick is topped back up before the tick ends.
+     *
+     * @throws Exception
+     */
+    @Test
+    void replenishesFoodEveryTick() throws Exception {
+        GameEngine engine = new GameEngine(new Board(5, 10, 30, 0, 1, 2, 3L));
+        for (int i = 0; i < 4 && !engine.isOver(); i++) {
+            engine.step(Direction.UP);
+            assertEquals(30, engine.getBoard().getFoodCount());
+        }
+        assertTrue(engine.getScore() > 0, "the user snake ate food on the way");
+    }
+
+    /**
+     * Headless games record no changed cells; once tracking is on, every tick lists the cells it changed
+     * until a renderer clears them.
+     *
+     * @throws Exception
+     */
+    @Test
+    void tracksChangesOnlyWhenAsked() throws Exception {
+        GameEngine engine = new GameEngine(new Board(10, 20, 3, 0, 1, 5, 1L));
+        Board board = engine.getBoard();
+        for (int i = 0; i < 5 && !engine.isOver(); i++) {
+            engine.step(Direction.UP);
+        }
+        assertEquals(0, board.getDirtyCount());
+
+        board.setChangeTracking(true);
+        engine.step(Direction.UP);
+        assertTrue(board.getDirtyCount() > 0);
+        board.clearDirty();
+        assertEquals(0, board.getDirtyCount());
+        engine.step(Direction.UP);
+        board.setChangeTracking(false);
+        assertEquals(0, board.getDirtyCount());
+    }
+
+    /**
+     * A recorded game written to bytes and read back plays out to the same board, score and result.
+     *
+     * @throws Exception
+     */
+    @Test
+    void replayPlaysBackTheSameGame() throws Exception {
+        GameEngine engine = new GameEngine(new Board(2, 7L));
+        Replay recording = engine.startRecording();
+        Direction[] moves = {Direction.UP, Direction.UP, Direction.UP, Direction.LEFT, Direction.LEFT, Direction.UP, Direction.RIGHT};
+        for (int i = 0; i < 40 && !engine.isOver(); i++) {
+            engine.step(moves[i % moves.length]);
+        }
+        assertEquals(engine.getTickCount(), recording.getTickCount());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.write(out);
+        Replay replay = Replay.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(7L, replay.getSeed());
+        assertEquals(recording.getTickCount(), replay.getTickCount());
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        assertEquals(engine.getLastResult(), player.playToEnd());
+        assertEquals(engine.getTickCount(), player.getEngine().getTickCount());
+        assertEquals(engine.getScore(), player.getEngine().getScore());
+        assertEquals(engine.getBoard().getBitboard(), player.getEngine().getBoard().getBitboard());
+    }
+
+    /**
+     * Recording cannot start once the game has moved, since the replay would miss the first ticks.
+     *
+     * @throws Exception
+     */
+    @Test
+    void recordingStartsBeforeFirstTick() throws Exception {
+        GameEngine engine = new GameEngine(new Board(8, 8, 0, 0, 0, 3));
+        engine.step(Direction.UP);
+        assertThrows(IllegalStateException.class, engine::startRecording);
+    }
+}
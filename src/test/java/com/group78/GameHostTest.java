@@ -0,0 +1,136 @@
+package com.group78;
+
+import com.group78.gamelogic.Board;
+import com.group78.gamelogic.Direction;
+import com.group78.gamelogic.GameHost;
+import com.group78.gamelogic.GameSession;
+import com.group78.gamelogic.Tile;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameHostTest {
+
+    /**
+     * A thousand sessions play their games to the end at the same time, each reporting its tick lag,
+     * and leave the host once over.
+     *
+     * @throws Exception
+     */
+    @Test
+    void runsManySessions() throws Exception {
+        List<GameSession> sessions = new ArrayList<>();
+        try (GameHost host = new GameHost(5)) {
+            for (int n = 0; n < 1000; n++) {
+                sessions.add(host.open(new Board(10, 20, 3, 0, 1, 5, n)));
+            }
+            for (GameSession session : sessions) {
+                session.await();
+            }
+            assertEquals(0, host.getSessionCount());
+        }
+        for (GameSession session : sessions) {
+            assertFalse(session.isRunning());
+            assertTrue(session.getEngine().isOver());
+            assertTrue(session.getEngine().getTickCount() > 0);
+            assertTrue(session.getMaxLagNanos() >= session.getAverageLagNanos());
+        }
+    }
+
+    /**
+     * Queued directions are played one per tick, in order.
+     *
+     * @throws Exception
+     */
+    @Test
+    void playsQueuedInputs() throws Exception {
+        List<Tile> heads = new ArrayList<>();
+        CountDownLatch ticked = new CountDownLatch(2);
+        try (GameHost host = new GameHost(50)) {
+            GameSession session = host.open(new Board(10, 10, 0, 0, 1, 5, 1L), (engine, result) -> {
+                if (heads.size() < 2) {
+                    heads.add(engine.getBoard().locateHeads().get(0));
+                    ticked.countDown();
+                }
+            });
+            session.input(Direction.RIGHT);
+            session.input(Direction.UP);
+            assertTrue(ticked.await(5, TimeUnit.SECONDS));
+            session.stop();
+            session.await();
+        }
+        assertEquals(6, heads.get(0).getTileX());
+        assertEquals(4, heads.get(0).getTileY());
+        assertEquals(6, heads.get(1).getTileX());
+        assertEquals(5, heads.get(1).getTileY());
+    }
+
+    /**
+     * Stopped sessions end without finishing their game, and a closed host opens no more sessions.
+     *
+     * @throws Exception
+     */
+    @Test
+    void stopAndClose() throws Exception {
+        GameHost host = new GameHost(60_000);
+        GameSession session = host.open(new Board(1));
+        assertSame(session, host.getSession(session.getId()));
+        session.stop();
+        session.await();
+        assertFalse(session.isRunning());
+        assertEquals(0, session.getEngine().getTickCount());
+        assertNull(host.getSession(session.getId()));
+
+        GameSession other = host.open(new Board(1));
+        host.close();
+        assertFalse(other.isRunning());
+        assertThrows(IllegalStateException.class, () -> host.open(new Board(1)));
+    }
+
+    /**
+     * Every session opened while the host closes is either refused or stopped by close().
+     *
+     * @throws Exception
+     */
+    @Test
+    void closeStopsSessionsOpenedMeanwhile() throws Exception {
+        GameHost host = new GameHost(60_000);
+        List<GameSession> opened = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> openers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            openers.add(new Thread(() -> {
+                started.countDown();
+                try {
+                    while (true) {
+                        opened.add(host.open(new Board(10, 10, 0, 0, 0, 5, 1L)));
+                    }
+                } catch (IllegalStateException e) {
+                    // the host closed
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        for (Thread opener : openers) {
+            opener.start();
+        }
+        started.await();
+        Thread.sleep(20);
+        host.close();
+        for (Thread opener : openers) {
+            opener.join();
+        }
+        assertFalse(opened.isEmpty());
+        for (GameSession session : opened) {
+            assertFalse(session.isRunning());
+        }
+        assertEquals(0, host.getSessionCount());
+    }
+}
@@ -0,0 +1,193 @@
+package com.group78;
+
+import com.group78.backend.DatabaseReader;
+import com.group78.backend.GameToken;
+import com.group78.backend.MappedUserStore;
+import com.group78.backend.UserStats;
+import com.group78.backend.UserStoreConverter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedUserStoreTest {
+
+    /**
+     * Stats are updated in place and are still there when the file is opened again.
+     *
+     * @throws Exception
+     */
+    @Test
+    void updatesRecordsInPlace() throws Exception {
+        Path file = Files.createTempFile("users", MappedUserStore.EXTENSION);
+        Files.delete(file);
+        MappedUserStore users = new MappedUserStore(file.toString());
+        assertTrue(users.createUser("tirth"));
+        assertFalse(users.createUser("tirth"));
+        users.save(new GameToken("otilia", new UserStats(10, 3, 3435)));
+        users.save(new GameToken("tirth", new UserStats(2, 3, 150)));
+        assertFalse(users.isUser("chris"));
+        assertNull(users.fetchToken("chris"));
+        users.close();
+
+        MappedUserStore reopened = new MappedUserStore(file.toString());
+        assertEquals(2, reopened.getUserCount());
+        assertEquals(150, reopened.fetchToken("tirth").getStats().getTotalPoints());
+        List<GameToken> all = reopened.fetchAll();
+        assertEquals("tirth", all.get(0).getUsername());
+        assertEquals("otilia", all.get(1).getUsername());
+        assertEquals(10, all.get(1).getStats().getLevel());
+        assertEquals(3435, reopened.top(1).get(0).getStats().getTotalPoints());
+        reopened.close();
+        Files.delete(file);
+        Files.delete(Path.of(file + ".lock"));
+    }
+
+    /**
+     * A full file grows in place, keeping every user findable, and usernames too long for a record are refused.
+     *
+     * @throws Exception
+     */
+    @Test
+    void growsWhenFull() throws Exception {
+        Path file = Files.createTempFile("users", MappedUserStore.EXTENSION);
+        Files.delete(file);
+        MappedUserStore users = new MappedUserStore(file.toString());
+        Object created = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        int n = 3000;
+        for (int i = 0; i < n; i++) {
+            users.save(new GameToken("user" + i, new UserStats(1, 1, i)));
+        }
+        assertTrue(users.getCapacity() >= n);
+        assertEquals(created, Files.readAttributes(file, BasicFileAttributes.class).fileKey(), "the mapped file is never replaced");
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, users.fetchToken("user" + i).getStats().getTotalPoints());
+        }
+        assertThrows(IllegalArgumentException.class, () -> users.createUser("x".repeat(MappedUserStore.MAX_NAME_BYTES + 1)));
+        users.close();
+
+        MappedUserStore reopened = new MappedUserStore(file.toString());
+        assertEquals(n, reopened.getUserCount());
+        assertEquals(n - 1, reopened.fetchToken("user" + (n - 1)).getStats().getTotalPoints());
+        reopened.close();
+        Files.delete(file);
+        Files.delete(Path.of(file + ".lock"));
+    }
+
+    /**
+     * The converter copies a users json file, in order, and DatabaseReader serves the result.
+     *
+     * @throws Exception
+     */
+    @Test
+    void convertsJsonForDatabaseReader() throws Exception {
+        Path json = Files.createTempFile("users", ".json");
+        Files.writeString(json, "[{\"level\":6,\"totalPoints\":3613,\"snakeSize\":3,\"username\":\"chris\"},"
+                + "{\"level\":2,\"totalPoints\":480,\"snakeSize\":3,\"username\":\"milli\"}]");
+        Path file = Files.createTempFile("users", MappedUserStore.EXTENSION);
+        Files.delete(file);
+        assertEquals(2, UserStoreConverter.convert(json.toString(), file.toString()));
+        Files.delete(json);
+        Files.delete(Path.of(json + ".lock"));
+
+        DatabaseReader reader = new DatabaseReader(file.toString());
+        assertTrue(reader.isUser("milli"));
+        GameToken chris = reader.fetchToken("chris");
+        assertEquals(6, chris.getStats().getLevel());
+        chris.getStats().setLevel(7);
+        reader.saveGame(chris);
+        assertEquals(7, reader.fetchToken("chris").getStats().getLevel());
+        assertEquals("milli", reader.fetchAll().get(1).getUsername());
+        MappedUserStore.forFile(file.toString()).close();
+        Files.delete(file);
+        Files.delete(Path.of(file + ".lock"));
+    }
+
+    /**
+     * Readers and writers on many threads, and a second store of the same file, keep every user written:
+     * the other store maps the file again once it has grown.
+     *
+     * @throws Exception
+     */
+    @Test
+    void keepsConcurrentWrites() throws Exception {
+        Path file = Files.createTempFile("users", MappedUserStore.EXTENSION);
+        Files.delete(file);
+        MappedUserStore users = new MappedUserStore(file.toString());
+        MappedUserStore other = new MappedUserStore(file.toString());
+        other.save(new GameToken("chris", new UserStats(6, 3, 3613)));
+        int threads = 8;
+        int each = 500;
+        List<Thread> workers = new ArrayList<>();
+        AtomicInteger missed = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            int first = t * each;
+            workers.add(new Thread(() -> {
+                for (int i = first; i < first + each; i++) {
+                    users.save(new GameToken("user" + i, new UserStats(1, 1, i)));
+                    if (users.fetchToken("user" + i) == null || !users.isUser("chris")) {
+                        missed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(0, missed.get());
+        assertEquals(threads * each + 1, users.getUserCount());
+        assertEquals(threads * each + 1, other.getUserCount(), "the other store maps the grown file");
+        other.save(new GameToken("user7", new UserStats(2, 1, 70)));
+        assertEquals(70, users.fetchToken("user7").getStats().getTotalPoints());
+        assertEquals(3999, other.fetchToken("user3999").getStats().getTotalPoints());
+        users.close();
+        other.close();
+        Files.delete(file);
+        Files.delete(Path.of(file + ".lock"));
+    }
+
+    /**
+     * The leaderboard is built on first use, follows saves made here, and is rebuilt after another store
+     * of the same file writes.
+     *
+     * @throws Exception
+     */
+    @Test
+    void ranksTopUsers() throws Exception {
+        Path file = Files.createTempFile("users", MappedUserStore.EXTENSION);
+        Files.delete(file);
+        MappedUserStore users = new MappedUserStore(file.toString());
+        MappedUserStore other = new MappedUserStore(file.toString());
+        users.save(new GameToken("chris", new UserStats(6, 3, 3613)));
+        users.save(new GameToken("milli", new UserStats(2, 3, 480)));
+        assertTrue(users.createUser("tirth"));
+        assertEquals(List.of("chris", "milli", "tirth"), names(users.top(3)));
+
+        users.save(new GameToken("tirth", new UserStats(2, 3, 5000)));
+        assertEquals(List.of("tirth", "chris"), names(users.top(2)));
+        other.save(new GameToken("milli", new UserStats(3, 3, 9000)));
+        assertEquals(List.of("milli", "tirth", "chris"), names(users.top(3)));
+        assertEquals(9000, users.top(1).get(0).getStats().getTotalPoints());
+        users.close();
+        other.close();
+        Files.delete(file);
+        Files.delete(Path.of(file + ".lock"));
+    }
+
+    private static List<String> names(List<GameToken> tokens) {
+        List<String> names = new ArrayList<>();
+        for (GameToken token : tokens) {
+            names.add(token.getUsername());
+        }
+        return names;
+    }
+}
@@ -1,10 +1,16 @@
 package com.group78;
 import com.group78.gamelogic.Board;
 import com.group78.gamelogic.Direction;
+import com.group78.gamelogic.Tile;
+import com.group78.gamelogic.TileType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SnakesAndBoardTesting {
@@ -104,4 +110,209 @@ class SnakesAndBoardTesting {
         }
 
     }
+
+    /**
+     * Tiles from getTile() write through to the board, and getBitboard(type) marks the same tiles.
+     *
+     * @throws Exception
+     */
+    @Test
+    void tileViewsAndBitboard() throws Exception {
+        board = new Board(8, 8, 0, 0, 0, 0);
+        board.getTile(7, 7).setFood();
+        assertEquals(TileType.FOOD, board.getType(7, 7));
+        assertEquals(TileType.FOOD, board.getMap()[7][7].getType());
+        assertEquals(board.getTile(7, 7), board.getMap()[7][7]);
+
+        long[] food = board.getBitboard(TileType.FOOD);
+        assertEquals(1L << 63, food[0]);
+        long[] user = board.getBitboard(TileType.U_SNAKE);
+        assertEquals(5, Long.bitCount(user[0]));
+
+        board.getTile(7, 7).clear();
+        assertEquals(0L, board.getBitboard(TileType.FOOD)[0]);
+    }
+
+    /**
+     * Food fills every empty tile when asked for as many foods as there are empty tiles, and
+     * obstacles keep out of the snake spawn rows and the last row and column.
+     *
+     * @throws Exception
+     */
+    @Test
+    void spawnFromFreeCells() throws Exception {
+        board = new Board(10, 10, 95, 0, 0, 0);
+        int food = 0;
+        for (long word : board.getBitboard(TileType.FOOD)) {
+            food += Long.bitCount(word);
+        }
+        assertEquals(95, food);
+
+        board = new Board(10, 10, 0, 40, 0, 0);
+        int obstacles = 0;
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                if (board.getType(i, j) == TileType.OBSTACLE) {
+                    obstacles++;
+                    assertTrue(i < 9 && j < 9 && (j < 5 || j > 6), "obstacle placed at " + i + "," + j);
+                }
+            }
+        }
+        assertEquals(40, obstacles);
+    }
+
+    /**
+     * Food eaten by the user snake is topped back up by updateFood().
+     *
+     * @throws Exception
+     */
+    @Test
+    void updateFoodRefills() throws Exception {
+        board = new Board(1, 9, 4, 0, 0, 0);
+        assertEquals(4, board.getFoodCount());
+        board.moveSnakes(Direction.UP);
+        board.moveSnakes(Direction.UP);
+        assertEquals(2, board.getFoodCount());
+        board.updateFood();
+        assertEquals(2, board.getFoodCount(), "no empty tiles are left for more food");
+
+        board = new Board(8, 8, 3, 0, 0, 0);
+        int cell = Long.numberOfTrailingZeros(board.getBitboard(TileType.FOOD)[0]);
+        board.getTile(cell % 8, cell / 8).clear();
+        assertEquals(2, board.getFoodCount());
+        board.updateFood();
+        assertEquals(3, board.getFoodCount());
+    }
+
+    @Test
+    void sameSeedSameGame() throws Exception {
+        Board first = new Board(3, 42L);
+        Board second = new Board(3, 42L);
+        assertEquals(42L, first.getSeed());
+        assertEquals(first.getBitboard(), second.getBitboard());
+
+        Direction[] moves = {Direction.UP, Direction.UP, Direction.LEFT, Direction.UP, Direction.RIGHT, Direction.UP};
+        for (Direction move : moves) {
+            assertEquals(first.moveSnakes(move), second.moveSnakes(move));
+            first.updateFood();
+            second.updateFood();
+            assertEquals(first.getBitboard(), second.getBitboard());
+        }
+    }
+
+    @Test
+    void parallelEnemiesMatchSequential() throws Exception {
+        Board sequential = new Board(256, 256, 256, 0, 100, 128, 5L);
+        Board parallel = new Board(256, 256, 256, 0, 100, 128, 5L);
+        sequential.setParallelThreshold(Integer.MAX_VALUE);
+        parallel.setParallelThreshold(1);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int tick = 0; tick < 30; tick++) {
+                assertEquals(sequential.moveSnakes(Direction.UP), pool.submit(() -> parallel.moveSnakes(Direction.UP)).get());
+                assertEquals(sequential.getBitboard(), parallel.getBitboard());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void headIndexMatchesLocateHeads() throws Exception {
+        board = new Board(32, 32, 40, 0, 6, 16, 11L);
+        for (int tick = 0; tick < 20 && board.moveSnakes(tick % 4 < 2 ? Direction.UP : Direction.LEFT); tick++) {
+            int heads = 0;
+            for (int x = 0; x < board.getWidth(); x++) {
+                for (int y = 0; y < board.getHeight(); y++) {
+                    if (board.isHead(x, y)) {
+                        heads++;
+                        assertTrue(board.locateHeads().contains(board.getTile(x, y)));
+                    }
+                }
+            }
+            assertEquals(board.locateHeads().size(), heads);
+        }
+        assertFalse(board.isHead(-1, 0));
+    }
+
+    /**
+     * A 4096x4096 board only allocates the chunks its snakes, food and obstacles are in, and plays like a small one.
+     *
+     * @throws Exception
+     */
+    @Test
+    void chunkedLargeBoard() throws Exception {
+        board = new Board(4096, 4096, 200, 50, 8, 2048, 7L);
+        assertTrue(board.getAllocatedChunks() > 0);
+        assertTrue(board.getAllocatedChunks() <= 200 + 50 + 9 * 2, board.getAllocatedChunks() + " chunks");
+        assertEquals(200, board.getFoodCount());
+        assertEquals(TileType.EMPTY, board.getType(4000, 4000));
+
+        for (int tick = 0; tick < 50; tick++) {
+            assertTrue(board.moveSnakes(Direction.UP));
+            board.updateFood();
+            board.clearDirty();
+            assertEquals(200, board.getFoodCount());
+            for (Tile head : board.locateHeads()) {
+                assertTrue(board.isHead(head.getTileX(), head.getTileY()));
+            }
+        }
+        assertTrue(board.getAllocatedChunks() < 4096 / 8, board.getAllocatedChunks() + " chunks");
+        assertEquals(0, new Board(1024, 1024, 1, 0, 0, 0).getAllocatedChunks(), "boards up to 1024x1024 stay dense");
+    }
+
+    /**
+     * Enemies on a chunked board move into chunks nothing has been written to yet without ending the game.
+     *
+     * @throws Exception
+     */
+    @Test
+    void enemiesCrossChunkBorders() throws Exception {
+        board = new Board(4096, 4096, 200, 50, 8, 2048, 40L);
+        Direction[] square = {Direction.UP, Direction.RIGHT, Direction.DOWN, Direction.LEFT};
+        Set<Integer> chunks = new HashSet<>();
+        int startChunks = 0;
+        for (int tick = 0; tick < 300; tick++) {
+            assertTrue(board.moveSnakes(square[(tick / 20) % 4]), "tick " + tick);
+            board.clearDirty();
+            for (Tile head : board.locateHeads()) {
+                assertTrue(board.isHead(head.getTileX(), head.getTileY()));
+                chunks.add((head.getTileX() / 64) * 64 + head.getTileY() / 64);
+            }
+            if (tick == 0) {
+                startChunks = chunks.size();
+            }
+        }
+        assertTrue(chunks.size() > startChunks, "no head left the chunks it started in");
+    }
+
+    @Test
+    void foodDistanceField() throws Exception {
+        board = new Board(16, 16, 1, 0, 1, 8, 3L);
+        assertEquals(Integer.MAX_VALUE, board.getFoodDistance(0, 0), "no field before the first tick");
+        int foodX = -1;
+        int foodY = -1;
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                if (board.getType(x, y) == TileType.FOOD) {
+                    foodX = x;
+                    foodY = y;
+                }
+            }
+        }
+        board.moveSnakes(Direction.UP);
+
+        // the field was computed at the start of the tick, before the food could be eaten
+        assertEquals(0, board.getFoodDistance(foodX, foodY));
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                int distance = board.getFoodDistance(x, y);
+                if (distance != Integer.MAX_VALUE) {
+                    assertTrue(distance >= Math.abs(x - foodX) + Math.abs(y - foodY));
+                }
+            }
+        }
+        assertEquals(Integer.MAX_VALUE, board.getFoodDistance(-1, 0));
+    }
 }
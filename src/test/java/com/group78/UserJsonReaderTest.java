@@ -0,0 +1,75 @@
+package com.group78;
+
+import com.group78.backend.GameToken;
+import com.group78.backend.UserJsonReader;
+import com.group78.backend.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserJsonReaderTest {
+
+    /**
+     * Users are read one at a time, whatever the order of their fields, with escapes decoded
+     * and unknown fields skipped.
+     *
+     * @throws Exception
+     */
+    @Test
+    void readsUsersOneAtATime() throws Exception {
+        UserJsonReader reader = new UserJsonReader(new StringReader(" [ {\"level\":6,\"totalPoints\":3613,"
+                + "\"snakeSize\":3,\"username\":\"chris\"},\n{\"username\":\"mil\\\"li\\u00e9\",\"extra\":{\"a\":[1,\"]\"]},"
+                + "\"totalPoints\":-480,\"flag\":true,\"level\":2} ] "));
+        GameToken chris = reader.next();
+        assertEquals("chris", chris.getUsername());
+        assertEquals(6, chris.getStats().getLevel());
+        assertEquals(3, chris.getStats().getSnakeSize());
+        assertEquals(3613, chris.getStats().getTotalPoints());
+        GameToken milli = reader.next();
+        assertEquals("mil\"lié", milli.getUsername());
+        assertEquals(2, milli.getStats().getLevel());
+        assertEquals(-480, milli.getStats().getTotalPoints());
+        assertEquals(0, milli.getStats().getSnakeSize());
+        assertNull(reader.next());
+        assertNull(reader.next());
+
+        assertNull(new UserJsonReader(new StringReader("[]")).next());
+        UserJsonReader truncated = new UserJsonReader(new StringReader("[{\"username\":\"chris\",\"level\":6}"));
+        assertNotNull(truncated.next());
+        assertThrows(IOException.class, truncated::next);
+        assertThrows(IOException.class, () -> new UserJsonReader(new StringReader("{}")).next());
+    }
+
+    /**
+     * The repository loads a users file through the reader, keeping file order.
+     *
+     * @throws Exception
+     */
+    @Test
+    void loadsFile() throws Exception {
+        Path file = Files.createTempFile("users", ".json");
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i > 0 ? "," : "").append("{\"level\":").append(i % 10 + 1).append(",\"totalPoints\":")
+                    .append(i * 37).append(",\"snakeSize\":3,\"username\":\"user").append(i).append("\"}");
+        }
+        Files.writeString(file, json.append("]"));
+
+        UserRepository users = new UserRepository(file.toString());
+        List<String> names = users.fetchAll().stream().map(GameToken::getUsername).collect(Collectors.toList());
+        assertEquals(1000, names.size());
+        assertEquals("user0", names.get(0));
+        assertEquals("user999", names.get(999));
+        assertEquals(999 * 37, users.fetchToken("user999").getStats().getTotalPoints());
+        users.close();
+        Files.delete(file);
+        Files.delete(Path.of(file + ".lock"));
+    }
+}
@@ -0,0 +1,236 @@
+package com.group78;
+
+import com.group78.backend.GameToken;
+import com.group78.backend.UserRepository;
+import com.group78.backend.UserStats;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRepositoryTest {
+
+    /**
+     * Users are read once: later changes to the file are not seen, and reads hand out copies.
+     *
+     * @throws Exception
+     */
+    @Test
+    void servesReadsFromMemory() throws Exception {
+        Path file = Files.createTempFile("users", ".json");
+        Files.writeString(file, "[{\"level\":6,\"totalPoints\":3613,\"snakeSize\":3,\"username\":\"chris\"},"
+                + "{\"level\":2,\"totalPoints\":480,\"snakeSize\":3,\"username\":\"milli\"}]");
+        UserRepository users = new UserRepository(file.toString());
+        Files.delete(file);
+
+        assertTrue(users.isUser("chris"));
+        assertFalse(users.isUser("tirth"));
+        GameToken chris = users.fetchToken("chris");
+        assertEquals(6, chris.getStats().getLevel());
+        assertEquals(3613, chris.getStats().getTotalPoints());
+        chris.getStats().setTotalPoints(0);
+        assertEquals(3613, users.fetchToken("chris").getStats().getTotalPoints());
+
+        List<GameToken> all = users.fetchAll();
+        assertEquals("chris", all.get(0).getUsername());
+        assertEquals("milli", all.get(1).getUsername());
+        assertEquals(0, users.getDirtyCount());
+        users.close();
+        assertFalse(Files.exists(file), "nothing was written, so nothing is flushed");
+        Files.delete(Path.of(file + ".lock"));
+    }
+
+    /**
+     * Writes mark users dirty and are written to the journal in one batch, in the background or on flush().
+     *
+     * @throws Exception
+     */
+    @Test
+    void writesBehindInBatches() throws Exception {
+        Path file = Files.createTempFile("users", ".json");
+        Files.delete(file);
+        UserRepository users = new UserRepository(file.toString());
+        users.save(new GameToken("tirth", new UserStats(2, 3, 150)));
+        users.save(new GameToken("otilia", new UserStats(10, 3, 3435)));
+        assertFalse(users.createUser("tirth"));
+        assertEquals(2, users.getDirtyCount());
+
+        // the background thread writes both users within a flush interval
+        for (int i = 0; i < 100 && users.getDirtyCount() > 0; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, users.getDirtyCount());
+        assertTrue(users.flush(), "waits for the background write to finish");
+        UserRepository reread = new UserRepository(file.toString());
+        assertEquals(150, reread.fetchToken("tirth").getStats().getTotalPoints());
+        assertEquals(3435, reread.fetchToken("otilia").getStats().getTotalPoints());
+        assertEquals("tirth", reread.fetchAll().get(0).getUsername());
+
+        users.save(new GameToken("otilia", new UserStats(10, 3, 4000)));
+        users.close();
+        assertEquals(4000, new UserRepository(file.toString()).fetchToken("otilia").getStats().getTotalPoints());
+        assertFalse(Files.exists(file), "the snapshot is only written by a compaction");
+        Files.delete(Path.of(file + ".journal"));
+        Files.delete(Path.of(file + ".lock"));
+    }
+
+    /**
+     * Compactions replace the file whole, in the layout of users.json, without leaving temp or journal files;
+     * a failed flush keeps the users dirty.
+     *
+     * @throws Exception
+     */
+    @Test
+    void replacesFileAtomically() throws Exception {
+        Path dir = Files.createTempDirectory("users");
+        Path file = dir.resolve("users.json");
+        Files.writeString(file, "[{\"level\":6,\"totalPoints\":3613,\"snakeSize\":3,\"username\":\"chris\"}]");
+        UserRepository users = new UserRepository(file.toString());
+        users.save(new GameToken("a \"quoted\" name", new UserStats(1, 1, 5)));
+        assertTrue(users.compact());
+        assertEquals("[{\"level\":6,\"totalPoints\":3613,\"snakeSize\":3,\"username\":\"chris\"},"
+                + "{\"level\":1,\"totalPoints\":5,\"snakeSize\":1,\"username\":\"a \\\"quoted\\\" name\"}]",
+                Files.readString(file));
+        assertEquals(5, new UserRepository(file.toString()).fetchToken("a \"quoted\" name").getStats().getTotalPoints());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(2, files.count(), "no temp file is left behind, only the users file and its lock file");
+        }
+        users.close();
+
+        UserRepository missing = new UserRepository(dir.resolve("missing").resolve("users.json").toString());
+        missing.save(new GameToken("chris", new UserStats(6, 3, 3613)));
+        assertFalse(missing.flush());
+        assertEquals(1, missing.getDirtyCount());
+        Files.delete(file);
+        Files.delete(dir.resolve("users.json.lock"));
+        Files.delete(dir);
+    }
+
+    /**
+     * A save appends one record to the journal; startup replays the journal over the snapshot, skipping a
+     * record cut short by a crash, and a compaction folds it into the snapshot, even one interrupted by a crash.
+     *
+     * @throws Exception
+     */
+    @Test
+    void journalsAndCompacts() throws Exception {
+        Path dir = Files.createTempDirectory("users");
+        Path file = dir.resolve("users.json");
+        Path journal = dir.resolve("users.json.journal");
+        Files.writeString(file, "[{\"level\":6,\"totalPoints\":3613,\"snakeSize\":3,\"username\":\"chris\"}]");
+        UserRepository users = new UserRepository(file.toString());
+        assertTrue(users.createUser("milli"));
+        users.flush();
+        long size = Files.size(journal);
+        users.save(new GameToken("chris", new UserStats(7, 3, 4000)));
+        users.flush();
+        assertEquals(2, users.getJournalRecords());
+        List<String> records = Files.readAllLines(journal);
+        assertEquals(2, records.size());
+        assertEquals("{\"seq\":2,\"level\":7,\"totalPoints\":4000,\"snakeSize\":3,\"username\":\"chris\"}", records.get(1));
+        assertEquals(size + records.get(1).length() + 1, Files.size(journal), "a save appends one record");
+        users.close();
+
+        // a crash in the middle of the next append leaves half a record
+        Files.writeString(journal, "{\"seq\":3,\"level\":8,\"tot", StandardOpenOption.APPEND);
+        users = new UserRepository(file.toString());
+        assertEquals(7, users.fetchToken("chris").getStats().getLevel());
+        assertTrue(users.isUser("milli"));
+        users.save(new GameToken("milli", new UserStats(2, 1, 80)));
+        users.flush();
+        assertEquals(3, users.getJournalRecords());
+
+        // a crash after the journal was set aside for compacting leaves it next to the old snapshot
+        users.close();
+        Files.move(journal, dir.resolve("users.json.journal.compacting"));
+        users = new UserRepository(file.toString());
+        assertEquals(80, users.fetchToken("milli").getStats().getTotalPoints());
+        assertEquals(0, users.getJournalRecords(), "the interrupted compaction is finished on startup");
+        assertFalse(Files.exists(dir.resolve("users.json.journal.compacting")));
+        assertEquals("[{\"level\":7,\"totalPoints\":4000,\"snakeSize\":3,\"username\":\"chris\"},"
+                + "{\"level\":2,\"totalPoints\":80,\"snakeSize\":1,\"username\":\"milli\"}]", Files.readString(file));
+        users.close();
+        Files.delete(file);
+        Files.delete(dir.resolve("users.json.lock"));
+        Files.delete(dir);
+    }
+
+    /**
+     * Two repositories of one file, as in two processes, keep each other's writes: each applies the other's
+     * journal records and snapshots before writing, without undoing its own newer stats.
+     *
+     * @throws Exception
+     */
+    @Test
+    void keepsOtherWritersUpdates() throws Exception {
+        Path dir = Files.createTempDirectory("users");
+        Path file = dir.resolve("users.json");
+        Files.writeString(file, "[{\"level\":6,\"totalPoints\":3613,\"snakeSize\":3,\"username\":\"chris\"}]");
+        UserRepository first = new UserRepository(file.toString());
+        UserRepository second = new UserRepository(file.toString());
+        first.save(new GameToken("tirth", new UserStats(2, 3, 150)));
+        second.save(new GameToken("chris", new UserStats(7, 3, 4000)));
+        assertTrue(first.flush());
+        assertTrue(second.flush());
+        assertEquals(150, second.fetchToken("tirth").getStats().getTotalPoints(), "read from the first's records");
+
+        // the second's newer stats survive the first's older record
+        first.save(new GameToken("otilia", new UserStats(10, 3, 3435)));
+        second.save(new GameToken("tirth", new UserStats(3, 3, 300)));
+        assertTrue(first.compact());
+        assertTrue(second.flush());
+        assertEquals(300, second.fetchToken("tirth").getStats().getTotalPoints());
+        assertEquals(3435, second.fetchToken("otilia").getStats().getTotalPoints(), "read from the first's snapshot");
+        assertTrue(first.flush());
+        first.save(new GameToken("milli", new UserStats(2, 1, 80)));
+        assertTrue(first.compact());
+        assertEquals(4000, first.fetchToken("chris").getStats().getTotalPoints());
+        assertEquals(300, first.fetchToken("tirth").getStats().getTotalPoints());
+        first.close();
+        second.close();
+
+        UserRepository reopened = new UserRepository(file.toString());
+        assertEquals(4, reopened.fetchAll().size());
+        assertEquals(4000, reopened.fetchToken("chris").getStats().getTotalPoints());
+        assertEquals(300, reopened.fetchToken("tirth").getStats().getTotalPoints());
+        assertEquals(80, reopened.fetchToken("milli").getStats().getTotalPoints());
+        reopened.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(f -> f.toFile().delete());
+        }
+        Files.delete(dir);
+    }
+
+    /**
+     * The leaderboard follows every save, including a user falling back, and ranks ties by username.
+     *
+     * @throws Exception
+     */
+    @Test
+    void ranksTopUsers() throws Exception {
+        Path file = Files.createTempFile("users", ".json");
+        Files.writeString(file, "[{\"level\":6,\"totalPoints\":3613,\"snakeSize\":3,\"username\":\"chris\"},"
+                + "{\"level\":2,\"totalPoints\":480,\"snakeSize\":3,\"username\":\"milli\"}]");
+        UserRepository users = new UserRepository(file.toString());
+        assertTrue(users.createUser("tirth"));
+        users.save(new GameToken("otilia", new UserStats(10, 3, 3435)));
+        List<GameToken> top = users.top(3);
+        assertEquals(List.of("chris", "otilia", "milli"), top.stream().map(GameToken::getUsername).toList());
+        assertEquals(6, top.get(0).getStats().getLevel());
+
+        users.save(new GameToken("chris", new UserStats(6, 3, 100)));
+        users.save(new GameToken("tirth", new UserStats(2, 3, 480)));
+        assertEquals(List.of("otilia", "milli", "tirth", "chris"),
+                users.top(10).stream().map(GameToken::getUsername).toList());
+        assertEquals(1, users.top(1).size());
+        users.close();
+        Files.delete(file);
+        Files.delete(Path.of(file + ".journal"));
+        Files.delete(Path.of(file + ".lock"));
+    }
+}